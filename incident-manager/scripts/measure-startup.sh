@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# 对比Spring Boot fat jar与CDS构建的首个请求耗时（从启动JVM到 GET /incident 返回200）和此时的常驻内存（RSS）
+# 用法（在incident-manager目录下，需要Linux的/proc和curl）：
+#   mvn clean package && mvn -Pcds package -DskipTests
+#   scripts/measure-startup.sh [每种方式的运行次数，默认5]
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+TARGET_DIR=$(cd "$(dirname "$0")/../target" && pwd)
+FAT_JAR=$(ls "$TARGET_DIR"/incident-manager-*-SNAPSHOT.jar 2>/dev/null | head -1)
+
+measure() {
+  local mode=$1
+  shift
+  local start pid elapsed rss
+  start=$(date +%s%N)
+  (cd "$TARGET_DIR" && exec java "$@" --server.port="$PORT" > /dev/null 2>&1) &
+  pid=$!
+  until curl -sf -o /dev/null "http://localhost:$PORT/incident"; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "{\"mode\":\"$mode\",\"error\":\"process exited before serving a request\"}"
+      return
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "{\"mode\":\"$mode\",\"timeToFirstRequestMillis\":$elapsed,\"rssKb\":$rss}"
+}
+
+if [[ -z "$FAT_JAR" ]]; then
+  echo "fat jar not found in $TARGET_DIR, run mvn package first" >&2
+  exit 1
+fi
+if [[ ! -f "$TARGET_DIR/incident-manager-cds.jsa" ]]; then
+  echo "CDS archive not found in $TARGET_DIR, run mvn -Pcds package first" >&2
+  exit 1
+fi
+
+for ((i = 1; i <= RUNS; i++)); do
+  measure fat-jar -jar "$(basename "$FAT_JAR")"
+  # -Xshare:on 在归档与classpath不匹配时直接启动失败，而不是静默退回到不使用归档
+  measure cds -Xshare:on -XX:SharedArchiveFile=incident-manager-cds.jsa -jar incident-manager-cds.jar
+done
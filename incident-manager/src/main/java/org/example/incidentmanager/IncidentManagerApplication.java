@@ -3,9 +3,12 @@ package org.example.incidentmanager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableCaching
+// 开启定时任务，IncidentService.cleanExpiredData 的过期清理与归档依赖它
+@EnableScheduling
 public class IncidentManagerApplication {
     public static void main(String[] args) {
         SpringApplication.run(IncidentManagerApplication.class, args);
@@ -0,0 +1,55 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.diagnostics.JfrRecordingManager;
+import org.example.incidentmanager.model.JfrRecordingStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// 诊断接口：按需启停有界的JFR录制，默认关闭，需要配置 incident.diagnostics.jfr.enabled=true
+@RestController
+@RequestMapping("/diagnostics/jfr")
+@ConditionalOnProperty(name = "incident.diagnostics.jfr.enabled", havingValue = "true")
+public class DiagnosticsController {
+
+    @Autowired
+    private JfrRecordingManager jfrRecordingManager;
+
+    // 查询当前录制状态
+    @GetMapping
+    public ResponseEntity<?> getRecording() {
+        JfrRecordingStatus status = jfrRecordingManager.status();
+        if (status == null) {
+            return new ResponseEntity<>(List.of("No JFR recording"), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+    // 开始录制，durationSeconds为录制时长，到时自动停止并写入文件
+    @PostMapping
+    public ResponseEntity<?> startRecording(@RequestParam(defaultValue = "60") long durationSeconds) throws Exception {
+        long maxDuration = jfrRecordingManager.getMaxDurationSeconds();
+        if (durationSeconds < 1 || durationSeconds > maxDuration) {
+            return new ResponseEntity<>(List.of("Duration must be between 1 and " + maxDuration + " seconds"), HttpStatus.BAD_REQUEST);
+        }
+        JfrRecordingStatus status = jfrRecordingManager.start(durationSeconds);
+        if (status == null) {
+            return new ResponseEntity<>(List.of("A JFR recording is already running"), HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(status, HttpStatus.CREATED);
+    }
+
+    // 提前停止录制，返回录制文件路径
+    @DeleteMapping
+    public ResponseEntity<?> stopRecording() {
+        JfrRecordingStatus status = jfrRecordingManager.stop();
+        if (status == null) {
+            return new ResponseEntity<>(List.of("No JFR recording"), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.service.IncidentArchive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.List;
+
+@RestController
+@RequestMapping("/incident/archive")
+@CrossOrigin(origins = "http://localhost:3000")
+public class IncidentArchiveController {
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    @Autowired
+    private IncidentArchive incidentArchive;
+
+    // 按id查询归档事件的API
+    @GetMapping("/{id}")
+    public ResponseEntity<Incident> getArchivedIncident(@PathVariable Long id) {
+        Incident incident = incidentArchive.findById(id);
+        if (incident == null) {
+            throw new IllegalArgumentException("Archived incident with id " + id + " not found");
+        }
+        return new ResponseEntity<>(incident, HttpStatus.OK);
+    }
+
+    // 按创建时间范围分页查询归档事件的API，时间格式为ISO-8601，如 2024-11-29T00:00:00Z（毫秒和时区偏移可选）
+    // 结果按id升序，每页最多limit条，下一页以本页最后一个事件的id作为afterId
+    @GetMapping
+    public ResponseEntity<?> getArchivedIncidents(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                                  @RequestParam(defaultValue = "0") long afterId,
+                                                  @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        if (from != null && to != null && from.isAfter(to)) {
+            return new ResponseEntity<>(List.of("From must not be after to"), HttpStatus.BAD_REQUEST);
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(List.of("Limit must be between 1 and " + MAX_PAGE_SIZE), HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(incidentArchive.findByCreatedDate(toDate(from), toDate(to), afterId, limit), HttpStatus.OK);
+    }
+
+    private static Date toDate(OffsetDateTime dateTime) {
+        return dateTime == null ? null : Date.from(dateTime.toInstant());
+    }
+}
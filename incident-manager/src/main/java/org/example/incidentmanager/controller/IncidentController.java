@@ -1,8 +1,10 @@
 package org.example.incidentmanager.controller;
 
 import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
 import org.example.incidentmanager.service.IncidentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -14,7 +16,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/incident")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = HttpHeaders.ETAG)
 public class IncidentController {
 
     @Autowired
@@ -29,7 +31,9 @@ public class IncidentController {
             return new ResponseEntity<>(errorMessages, HttpStatus.BAD_REQUEST);
         }
         Incident createdIncident = incidentService.createIncident(incident);
-        return new ResponseEntity<>(createdIncident, HttpStatus.CREATED);
+        // 去重模式下被合并到已有事件时没有创建新资源，返回200和合并后的事件
+        boolean folded = createdIncident.getOccurrenceCount() != null && createdIncident.getOccurrenceCount() > 1;
+        return new ResponseEntity<>(createdIncident, eTagHeaders(createdIncident), folded ? HttpStatus.OK : HttpStatus.CREATED);
     }
 
     // 删除事件的API
@@ -44,16 +48,44 @@ public class IncidentController {
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-    // 修改事件的API
+    // 修改事件的API，可通过If-Match请求头或请求体中的version做条件更新，版本不一致返回409
     @PutMapping
-    public ResponseEntity<?> updateIncident(@Valid @RequestBody Incident incident, BindingResult bindingResult) {
+    public ResponseEntity<?> updateIncident(@Valid @RequestBody Incident incident, BindingResult bindingResult,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (bindingResult.hasErrors()) {
             List<String> errorMessages = new ArrayList<>();
             bindingResult.getFieldErrors().forEach(fieldError -> errorMessages.add(fieldError.getDefaultMessage()));
             return new ResponseEntity<>(errorMessages, HttpStatus.BAD_REQUEST);
         }
+        if (ifMatch != null && !isWildcard(ifMatch)) {
+            Long expectedVersion = parseVersion(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(List.of("Invalid If-Match header"), HttpStatus.BAD_REQUEST);
+            }
+            incident.setVersion(expectedVersion);
+        }
         Incident updatedIncident = incidentService.updateIncident(incident);
-        return new ResponseEntity<>(updatedIncident, HttpStatus.OK);
+        return new ResponseEntity<>(updatedIncident, eTagHeaders(updatedIncident), HttpStatus.OK);
+    }
+
+    // 局部修改事件的API，请求体只需包含要修改的字段
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchIncident(@PathVariable Long id, @Valid @RequestBody IncidentPatch patch, BindingResult bindingResult,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (bindingResult.hasErrors()) {
+            List<String> errorMessages = new ArrayList<>();
+            bindingResult.getFieldErrors().forEach(fieldError -> errorMessages.add(fieldError.getDefaultMessage()));
+            return new ResponseEntity<>(errorMessages, HttpStatus.BAD_REQUEST);
+        }
+        if (ifMatch != null && !isWildcard(ifMatch)) {
+            Long expectedVersion = parseVersion(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(List.of("Invalid If-Match header"), HttpStatus.BAD_REQUEST);
+            }
+            patch.setVersion(expectedVersion);
+        }
+        Incident patchedIncident = incidentService.patchIncident(id, patch);
+        return new ResponseEntity<>(patchedIncident, eTagHeaders(patchedIncident), HttpStatus.OK);
     }
 
     // 获取所有事件的API
@@ -62,4 +94,34 @@ public class IncidentController {
         List<Incident> incidents = incidentService.getAllIncidents();
         return new ResponseEntity<>(incidents, HttpStatus.OK);
     }
-}
\ No newline at end of file
+
+    // 以版本号作为ETag返回，客户端可在后续更新时通过If-Match带回
+    private HttpHeaders eTagHeaders(Incident incident) {
+        HttpHeaders headers = new HttpHeaders();
+        if (incident != null && incident.getVersion() != null) {
+            headers.setETag("\"" + incident.getVersion() + "\"");
+        }
+        return headers;
+    }
+
+    // If-Match: * 只要求事件存在，不做版本校验，事件不存在时照常返回404
+    private boolean isWildcard(String ifMatch) {
+        return "*".equals(ifMatch.trim());
+    }
+
+    // 解析If-Match中的版本号，支持 "3" 和 W/"3" 两种形式，格式不正确返回null
+    private Long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.event.IncidentEventBus;
+import org.example.incidentmanager.model.IncidentStats;
+import org.example.incidentmanager.service.IncidentStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/incident/stats")
+@CrossOrigin(origins = "http://localhost:3000")
+public class IncidentStatsController {
+
+    @Autowired
+    private IncidentStatistics incidentStatistics;
+
+    @Autowired(required = false)
+    private IncidentEventBus incidentEventBus;
+
+    // 获取事件统计的API，resolution为minute或hour，buckets为返回的最近时间桶数量
+    @GetMapping
+    public ResponseEntity<?> getStats(@RequestParam(defaultValue = IncidentStatistics.RESOLUTION_HOUR) String resolution,
+                                      @RequestParam(defaultValue = "24") int buckets) {
+        if (!IncidentStatistics.RESOLUTION_MINUTE.equals(resolution) && !IncidentStatistics.RESOLUTION_HOUR.equals(resolution)) {
+            return new ResponseEntity<>(List.of("Resolution must be minute or hour"), HttpStatus.BAD_REQUEST);
+        }
+        int maxBuckets = IncidentStatistics.maxBuckets(resolution);
+        if (buckets < 1 || buckets > maxBuckets) {
+            return new ResponseEntity<>(List.of("Buckets must be between 1 and " + maxBuckets), HttpStatus.BAD_REQUEST);
+        }
+        IncidentStats stats = incidentStatistics.snapshot(resolution, buckets, System.currentTimeMillis());
+        if (incidentEventBus != null) {
+            stats.setEventsDropped(incidentEventBus.getDroppedCount());
+        }
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.incidentmanager.diagnostics;
+
+import jdk.jfr.*;
+
+// IncidentService每次操作对应一个JFR事件，记录锁等待时间、锁持有时间、涉及的条目数以及是否走了缓存重建分支
+// 没有开启该事件的JFR录制时，isEnabled()返回false，计时方法直接返回，不调用System.nanoTime()，也不写入录制缓冲区
+@Name("org.example.incidentmanager.IncidentOperation")
+@Label("Incident Operation")
+@Category({"Incident Manager", "Service"})
+@Description("A single IncidentService operation with its lock wait and hold times")
+@StackTrace(false)
+public class IncidentOperationEvent extends Event {
+
+    @Label("Operation")
+    private String operation;
+
+    @Label("Incident Id")
+    @Description("Id of the affected incident, 0 for operations on the whole collection")
+    private long incidentId;
+
+    @Label("Lock Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long lockWaitTime;
+
+    @Label("Lock Hold Time")
+    @Timespan(Timespan.NANOSECONDS)
+    private long lockHoldTime;
+
+    @Label("Entries Touched")
+    private int entriesTouched;
+
+    @Label("Cache Rebuild")
+    @Description("Whether getAllIncidents rebuilt the cache from the incident map")
+    private boolean cacheRebuild;
+
+    // 以下为计时用的中间状态，transient字段不会写入录制
+    private transient long lockRequestedAt;
+
+    private transient long lockAcquiredAt;
+
+    public IncidentOperationEvent(String operation) {
+        this.operation = operation;
+        begin();
+    }
+
+    public void lockRequested() {
+        if (isEnabled()) {
+            lockRequestedAt = System.nanoTime();
+        }
+    }
+
+    // 一次操作可能多次获取锁（如清理过期数据），等待时间和持有时间累加
+    public void lockAcquired() {
+        if (isEnabled()) {
+            lockAcquiredAt = System.nanoTime();
+            lockWaitTime += lockAcquiredAt - lockRequestedAt;
+        }
+    }
+
+    // 获取锁被中断时未持有锁，不计入持有时间
+    public void lockReleased() {
+        if (isEnabled() && lockAcquiredAt != 0L) {
+            lockHoldTime += System.nanoTime() - lockAcquiredAt;
+            lockAcquiredAt = 0L;
+        }
+    }
+
+    public void setIncidentId(Long incidentId) {
+        this.incidentId = incidentId == null ? 0L : incidentId;
+    }
+
+    public void setEntriesTouched(int entriesTouched) {
+        this.entriesTouched = entriesTouched;
+    }
+
+    public void setCacheRebuild(boolean cacheRebuild) {
+        this.cacheRebuild = cacheRebuild;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.incidentmanager.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.example.incidentmanager.model.JfrRecordingStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Date;
+
+// 按需启停JFR录制，同一时间最多一个录制，时长和大小都有上限，到达时长后自动停止并写入文件
+@Component
+@ConditionalOnProperty(name = "incident.diagnostics.jfr.enabled", havingValue = "true")
+public class JfrRecordingManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrRecordingManager.class);
+
+    private final Path directory;
+
+    private final long maxDurationSeconds;
+
+    private final long maxSizeBytes;
+
+    private final Configuration configuration;
+
+    private Recording recording;
+
+    public JfrRecordingManager(@Value("${incident.diagnostics.jfr.directory:recordings}") String directory,
+                               @Value("${incident.diagnostics.jfr.max-duration-seconds:600}") long maxDurationSeconds,
+                               @Value("${incident.diagnostics.jfr.max-size-mb:100}") long maxSizeMb,
+                               @Value("${incident.diagnostics.jfr.settings:profile}") String settings) {
+        this.directory = Paths.get(directory);
+        this.maxDurationSeconds = maxDurationSeconds;
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.configuration = resolveConfiguration(settings);
+    }
+
+    // 在启动时解析录制模板，配置错误时应用直接启动失败，而不是等到第一次录制才报错
+    private static Configuration resolveConfiguration(String settings) {
+        try {
+            return Configuration.getConfiguration(settings);
+        } catch (NoSuchFileException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to load JFR settings: " + settings, e);
+        }
+    }
+
+    public long getMaxDurationSeconds() {
+        return maxDurationSeconds;
+    }
+
+    // 开始一个新的录制，已有录制未结束时返回null
+    public synchronized JfrRecordingStatus start(long durationSeconds) throws IOException {
+        if (durationSeconds < 1 || durationSeconds > maxDurationSeconds) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + maxDurationSeconds + " seconds");
+        }
+        if (recording != null && recording.getState() != RecordingState.STOPPED && recording.getState() != RecordingState.CLOSED) {
+            return null;
+        }
+        closeCurrent();
+        Files.createDirectories(directory);
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName("incident-diagnostics");
+        // 业务事件不设阈值，每次操作都记录
+        newRecording.enable(IncidentOperationEvent.class).withoutThreshold();
+        newRecording.setToDisk(true);
+        newRecording.setMaxSize(maxSizeBytes);
+        newRecording.setDuration(Duration.ofSeconds(durationSeconds));
+        newRecording.setDestination(directory.resolve("incident-" + System.currentTimeMillis() + ".jfr"));
+        newRecording.start();
+        recording = newRecording;
+        logger.info("Started JFR recording {} for {} seconds", newRecording.getId(), durationSeconds);
+        return toStatus(newRecording);
+    }
+
+    // 停止当前录制并写入文件，没有录制时返回null
+    public synchronized JfrRecordingStatus stop() {
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+        }
+        JfrRecordingStatus status = toStatus(recording);
+        closeCurrent();
+        logger.info("Stopped JFR recording {}, written to {}", status.getId(), status.getDestination());
+        return status;
+    }
+
+    public synchronized JfrRecordingStatus status() {
+        return recording == null ? null : toStatus(recording);
+    }
+
+    private void closeCurrent() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static JfrRecordingStatus toStatus(Recording recording) {
+        return JfrRecordingStatus.builder()
+                .id(recording.getId())
+                .state(recording.getState().name())
+                .startTime(recording.getStartTime() == null ? null : Date.from(recording.getStartTime()))
+                .durationSeconds(recording.getDuration() == null ? 0L : recording.getDuration().getSeconds())
+                .maxSizeBytes(recording.getMaxSize())
+                .destination(recording.getDestination() == null ? null : recording.getDestination().toString())
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.incidentmanager.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 审计日志消费者：在事件总线的消费线程上按批次写审计日志，不占用变更操作的锁和线程
+@Component
+@ConditionalOnProperty(name = "incident.events.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditLogEventHandler implements IncidentEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogEventHandler.class);
+
+    private static final int MAX_BATCH_SIZE = 256;
+
+    private final List<String> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+    @Override
+    public void onEvent(IncidentEvent event, boolean endOfBatch) {
+        // 槽位会被复用，这里只保留格式化后的文本
+        batch.add(event.toString());
+        if (endOfBatch || batch.size() >= MAX_BATCH_SIZE) {
+            logger.info("Incident audit ({} events): {}", batch.size(), String.join("; ", batch));
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.example.incidentmanager.event;
+
+// 事件总线环形缓冲区中的一个槽位，预先分配并被反复复用；处理器如需在onEvent之外保留数据必须自行拷贝
+public final class IncidentEvent {
+
+    private long sequence;
+
+    private IncidentEventType type;
+
+    private Long incidentId;
+
+    private Long version;
+
+    private long timestamp;
+
+    void set(long sequence, IncidentEventType type, Long incidentId, Long version, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.incidentId = incidentId;
+        this.version = version;
+        this.timestamp = timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public IncidentEventType getType() {
+        return type;
+    }
+
+    public Long getIncidentId() {
+        return incidentId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Override
+    public String toString() {
+        return type + " id=" + incidentId + " version=" + version + " at=" + timestamp;
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.incidentmanager.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+// 进程内事件总线（Disruptor风格）：预分配的有界环形缓冲区，多生产者通过CAS申请序号后原地写入槽位，
+// 每个处理器在独立线程上按序批量消费。发布不加锁、不阻塞、不唤醒消费者，缓冲区满时丢弃事件并计数，
+// 因此变更操作的耗时与挂载了多少消费者、消费者处理快慢无关
+@Component
+public class IncidentEventBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncidentEventBus.class);
+
+    private static final long MAX_IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    // 丢弃事件时的告警日志最多每10秒输出一次，避免告警风暴时日志本身成为瓶颈
+    private static final long DROP_WARN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final boolean enabled;
+
+    private final int mask;
+
+    private final IncidentEvent[] entries;
+
+    // published[i] 保存最近一次写入该槽位并已发布的序号，用于判断槽位数据是否可读
+    private final AtomicLongArray published;
+
+    // 最近一次被申请的序号
+    private final AtomicLong cursor = new AtomicLong(-1L);
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final AtomicLong lastDropWarnNanos = new AtomicLong(System.nanoTime() - DROP_WARN_INTERVAL_NANOS);
+
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    // 缓存的最慢消费者序号，避免每次发布都遍历所有消费者
+    private volatile long gatingSequenceCache = -1L;
+
+    private volatile boolean running;
+
+    @Autowired
+    public IncidentEventBus(@Value("${incident.events.enabled:true}") boolean enabled,
+                            @Value("${incident.events.ring-size:8192}") int ringSize,
+                            ObjectProvider<IncidentEventHandler> handlerProvider) {
+        this(enabled, ringSize, handlerProvider.orderedStream().collect(Collectors.toList()));
+    }
+
+    public IncidentEventBus(boolean enabled, int ringSize, List<IncidentEventHandler> handlers) {
+        if (ringSize < 1 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("Ring size must be a power of 2");
+        }
+        this.enabled = enabled && !handlers.isEmpty();
+        this.mask = ringSize - 1;
+        this.entries = new IncidentEvent[ringSize];
+        this.published = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            entries[i] = new IncidentEvent();
+            published.set(i, -1L);
+        }
+        for (IncidentEventHandler handler : handlers) {
+            consumers.add(new Consumer(handler));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        for (Consumer consumer : consumers) {
+            consumer.thread.start();
+        }
+    }
+
+    // 停止时先把已发布的事件处理完再退出
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Consumer consumer : consumers) {
+            try {
+                consumer.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // 发布一个事件，缓冲区已满（最慢的消费者落后一整圈）时丢弃并返回false，不会阻塞调用方
+    public boolean publish(IncidentEventType type, Long incidentId, Long version, long timestamp) {
+        if (!running) {
+            return false;
+        }
+        long current;
+        long next;
+        do {
+            current = cursor.get();
+            next = current + 1;
+            long wrapPoint = next - entries.length;
+            if (wrapPoint > gatingSequenceCache) {
+                long minSequence = minimumConsumerSequence();
+                gatingSequenceCache = minSequence;
+                if (wrapPoint > minSequence) {
+                    dropped.increment();
+                    warnDropped();
+                    return false;
+                }
+            }
+        } while (!cursor.compareAndSet(current, next));
+        int index = (int) (next & mask);
+        entries[index].set(next, type, incidentId, version, timestamp);
+        published.set(index, next);
+        return true;
+    }
+
+    // 被丢弃的事件不会到达任何消费者，审计日志因此会缺失对应的记录
+    private void warnDropped() {
+        long now = System.nanoTime();
+        long last = lastDropWarnNanos.get();
+        if (now - last >= DROP_WARN_INTERVAL_NANOS && lastDropWarnNanos.compareAndSet(last, now)) {
+            logger.warn("Incident event ring is full, {} events dropped so far; audit log is missing these events", dropped.sum());
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getPublishedCount() {
+        return cursor.get() + 1;
+    }
+
+    private long minimumConsumerSequence() {
+        long min = Long.MAX_VALUE;
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.sequence.get());
+        }
+        return min;
+    }
+
+    private final class Consumer implements Runnable {
+
+        private final IncidentEventHandler handler;
+
+        // 该消费者已处理完的最大序号
+        private final AtomicLong sequence = new AtomicLong(-1L);
+
+        private final Thread thread;
+
+        private Consumer(IncidentEventHandler handler) {
+            this.handler = handler;
+            this.thread = new Thread(this, "incident-event-" + handler.getClass().getSimpleName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            long nextSequence = sequence.get() + 1;
+            long idleParkNanos = 1000L;
+            while (true) {
+                boolean stopping = !running;
+                long available = nextSequence - 1;
+                while (published.get((int) ((available + 1) & mask)) == available + 1) {
+                    available++;
+                }
+                if (available >= nextSequence) {
+                    for (long s = nextSequence; s <= available; s++) {
+                        try {
+                            handler.onEvent(entries[(int) (s & mask)], s == available);
+                        } catch (Exception e) {
+                            logger.error("Incident event handler {} failed on sequence {}", handler.getClass().getSimpleName(), s, e);
+                        }
+                    }
+                    sequence.set(available);
+                    nextSequence = available + 1;
+                    idleParkNanos = 1000L;
+                } else if (stopping) {
+                    return;
+                } else {
+                    // 没有新事件时逐步退避休眠，发布方无需唤醒消费者
+                    LockSupport.parkNanos(idleParkNanos);
+                    idleParkNanos = Math.min(idleParkNanos * 2, MAX_IDLE_PARK_NANOS);
+                }
+            }
+        }
+    }
+}
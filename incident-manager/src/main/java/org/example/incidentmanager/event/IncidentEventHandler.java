@@ -0,0 +1,7 @@
+package org.example.incidentmanager.event;
+
+// 事件消费者，每个处理器在自己的线程上按发布顺序批量处理事件，endOfBatch为true表示当前批次的最后一个事件
+public interface IncidentEventHandler {
+
+    void onEvent(IncidentEvent event, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,11 @@
+package org.example.incidentmanager.event;
+
+public enum IncidentEventType {
+    CREATED,
+    // 去重模式下重复上报被合并到已有事件
+    DEDUPLICATED,
+    UPDATED,
+    DELETED,
+    // 定时清理时过期移除（开启归档时已写入归档段文件）
+    EXPIRED
+}
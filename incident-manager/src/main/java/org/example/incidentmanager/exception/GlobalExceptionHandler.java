@@ -1,10 +1,12 @@
 package org.example.incidentmanager.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -22,6 +24,22 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
     }
 
+    // 处理请求参数类型转换失败（如日期格式错误），返回400而不是500
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Object> handleTypeMismatchException(MethodArgumentTypeMismatchException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), "Invalid value for parameter " + ex.getName());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    // 处理乐观锁版本冲突，返回409及服务端当前版本号
+    @ExceptionHandler(IncidentVersionConflictException.class)
+    public ResponseEntity<Object> handleVersionConflictException(IncidentVersionConflictException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(HttpStatus.CONFLICT.value(), ex.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"" + ex.getCurrentVersion() + "\"");
+        return new ResponseEntity<>(errorResponse, headers, HttpStatus.CONFLICT);
+    }
+
     // 自定义错误响应体类
     static class ErrorResponse {
         private int status;
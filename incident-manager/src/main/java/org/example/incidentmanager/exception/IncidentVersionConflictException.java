@@ -0,0 +1,16 @@
+package org.example.incidentmanager.exception;
+
+// 乐观锁版本冲突：客户端期望的版本与服务端当前版本不一致
+public class IncidentVersionConflictException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public IncidentVersionConflictException(Long id, long expectedVersion, long currentVersion) {
+        super("Incident with id " + id + " has version " + currentVersion + ", expected " + expectedVersion);
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.incidentmanager.filter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 基于延迟梯度的自适应并发限制器：不使用固定的延迟阈值，而是比较短期平均延迟与无负载基线延迟。
+// 基线只在并发明显低于上限或请求单独执行时更新，上限被占满期间冻结，持续过载时基线不会被排队延迟抬高；
+// 短期延迟不超过基线的tolerance倍时上限按sqrt(limit)增长，超过时不再增长并按比例下降，排队造成的尾延迟因此被限制在基线的tolerance倍左右。
+// 大列表查询等原因造成的稳定高延迟在低负载时就会计入基线，不会触发降级
+public class AdaptiveConcurrencyLimiter {
+
+    // 短期平均约覆盖最近10个请求，基线约覆盖最近600个无负载时的请求
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    // 单次调整的平滑系数，以及梯度的下限（单次最多降到一半）
+    private static final double SMOOTHING = 0.2;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // 延迟估计和上限只由抢到updating标记的线程更新，并发时跳过本次样本，不阻塞请求线程
+    private final AtomicBoolean updating = new AtomicBoolean();
+
+    private double shortLatency;
+
+    private double baselineLatency;
+
+    private volatile double limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        if (tolerance < 1.0) {
+            throw new IllegalArgumentException("Tolerance must be at least 1.0");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = initialLimit;
+    }
+
+    // 尝试占用一个并发名额，超过当前上限时立即返回false，不排队
+    public boolean tryAcquire() {
+        int currentLimit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // 请求结束时释放名额，并根据本次耗时调整上限
+    public void release(long latencyNanos) {
+        int inFlightBeforeRelease = inFlight.getAndDecrement();
+        if (latencyNanos <= 0 || !updating.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            update(latencyNanos, inFlightBeforeRelease);
+        } finally {
+            updating.set(false);
+        }
+    }
+
+    private void update(double latency, int inFlightBeforeRelease) {
+        double currentLimit = limit;
+        boolean saturated = inFlightBeforeRelease * 2 >= currentLimit;
+        // 单独执行的请求没有排队，其耗时就是无负载耗时，上限降到很低时也能据此更新基线，业务本身变慢时上限不会一直停在最低值
+        boolean unloaded = !saturated || inFlightBeforeRelease <= 1;
+        if (baselineLatency == 0) {
+            shortLatency = latency;
+            baselineLatency = latency;
+        } else {
+            shortLatency += (latency - shortLatency) / SHORT_WINDOW;
+            if (unloaded) {
+                baselineLatency += (latency - baselineLatency) / LONG_WINDOW;
+            }
+        }
+        // 基线明显高于短期延迟（如启动初期JIT未完成时的慢请求）时较快回落，基线只会因此变得更严格
+        if (baselineLatency > shortLatency * 2) {
+            baselineLatency *= 0.95;
+        }
+        double newLimit;
+        if (shortLatency > tolerance * baselineLatency) {
+            // 请求开始排队，按延迟超出的比例下降，此时不再增长
+            newLimit = currentLimit * Math.max(MIN_GRADIENT, tolerance * baselineLatency / shortLatency);
+        } else if (saturated) {
+            newLimit = currentLimit + Math.sqrt(currentLimit);
+        } else {
+            // 并发远低于上限时说明上限不是瓶颈，不调整
+            return;
+        }
+        newLimit = currentLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.incidentmanager.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+// 事件接口的准入控制：读写请求分别使用独立的自适应并发限制，超过上限的请求直接返回503和Retry-After，
+// 不在Tomcat队列和IncidentService的读写锁上无限排队
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private static final String INCIDENT_PATH = "/incident";
+
+    private static final int INITIAL_LIMIT = 4;
+
+    private final boolean enabled;
+
+    private final int retryAfterSeconds;
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    public AdmissionControlFilter(@Value("${incident.admission.enabled:true}") boolean enabled,
+                                  @Value("${incident.admission.retry-after-seconds:1}") int retryAfterSeconds,
+                                  @Value("${incident.admission.read.max-limit:200}") int readMaxLimit,
+                                  @Value("${incident.admission.write.max-limit:50}") int writeMaxLimit,
+                                  @Value("${incident.admission.latency-tolerance:2.0}") double latencyTolerance) {
+        this.enabled = enabled;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.readLimiter = newLimiter(readMaxLimit, latencyTolerance);
+        this.writeLimiter = newLimiter(writeMaxLimit, latencyTolerance);
+    }
+
+    // 初始上限取一个较小值，下限固定为1，由延迟梯度在两者之间调整；
+    // 上限只在请求结束时调整，初始值过大时启动即过载会让第一批请求全部并发执行，尾延迟在第一次下调前就已失控
+    private static AdaptiveConcurrencyLimiter newLimiter(int maxLimit, double latencyTolerance) {
+        return new AdaptiveConcurrencyLimiter(Math.min(INITIAL_LIMIT, maxLimit), 1, maxLimit, latencyTolerance);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !(path.equals(INCIDENT_PATH) || path.startsWith(INCIDENT_PATH + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            logger.debug("Rejected {} {}, concurrency limit {} reached", request.getMethod(), request.getRequestURI(), limiter.getLimit());
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    AdaptiveConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    AdaptiveConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    private static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + HttpStatus.SERVICE_UNAVAILABLE.value()
+                + ",\"message\":\"Server is overloaded, please retry later\"}");
+    }
+}
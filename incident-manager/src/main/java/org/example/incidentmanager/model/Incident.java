@@ -8,7 +8,7 @@ import java.io.Serializable;
 import java.util.Date;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class Incident implements Serializable {
@@ -28,4 +28,14 @@ public class Incident implements Serializable {
 
     private Date updatedDate;
 
+    // 去重模式下被合并的重复事件次数（包含首次），以及首次/最近一次出现的时间，由服务端维护
+    private Long occurrenceCount;
+
+    private Date firstSeen;
+
+    private Date lastSeen;
+
+    // 乐观锁版本号，每次修改加1；更新时带上版本号，与服务端不一致则返回409冲突
+    private Long version;
+
 }
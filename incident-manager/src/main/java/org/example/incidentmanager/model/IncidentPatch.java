@@ -0,0 +1,25 @@
+package org.example.incidentmanager.model;
+
+import lombok.*;
+
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+// 局部更新事件的请求体，只包含需要修改的字段，未传的字段保持不变
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IncidentPatch {
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Name cannot be blank")
+    @Size(min = 1, max = 50, message = "The length of the incident name should be between 1 and 50 characters")
+    private String name;
+
+    @Pattern(regexp = "(?s).*\\S.*", message = "Description cannot be blank")
+    @Size(min = 1, max = 200, message = "The length of the incident description should be between 1 and 200 characters")
+    private String description;
+
+    // 期望的当前版本号，不传则不做版本校验
+    private Long version;
+}
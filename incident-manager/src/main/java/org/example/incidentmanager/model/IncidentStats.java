@@ -0,0 +1,52 @@
+package org.example.incidentmanager.model;
+
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IncidentStats {
+
+    private long created;
+
+    private long updated;
+
+    private long deleted;
+
+    private long expired;
+
+    // 去重模式下被合并掉的重复上报次数
+    private long deduplicated;
+
+    // 当前仍在内存中的事件数
+    private long active;
+
+    // 事件总线缓冲区满时被丢弃、未送达审计日志等消费者的事件数（进程启动以来累计）
+    private long eventsDropped;
+
+    private String resolution;
+
+    private List<Bucket> buckets;
+
+    // 单个时间桶内的计数，start为桶的起始时间
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Bucket {
+
+        private Date start;
+
+        private long created;
+
+        private long updated;
+
+        private long deleted;
+
+        private long expired;
+    }
+}
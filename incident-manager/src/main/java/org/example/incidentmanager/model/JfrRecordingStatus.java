@@ -0,0 +1,26 @@
+package org.example.incidentmanager.model;
+
+import lombok.*;
+
+import java.util.Date;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class JfrRecordingStatus {
+
+    private long id;
+
+    // NEW、RUNNING、STOPPED、CLOSED
+    private String state;
+
+    private Date startTime;
+
+    private long durationSeconds;
+
+    private long maxSizeBytes;
+
+    // 录制停止后写入的文件路径
+    private String destination;
+}
@@ -0,0 +1,376 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.Incident;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// 冷数据归档：过期事件写入本地磁盘上不可变的压缩列式段文件，而不是直接删除
+// 段文件 = 未压缩的头部（id范围、创建时间范围等索引信息） + GZIP压缩的按列存储的数据，查询时根据头部索引只读取相关的段
+@Component
+public class IncidentArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(IncidentArchive.class);
+
+    private static final int MAGIC = 0x494E4353;
+    // 段文件格式版本：2 增加了version列，读取时仍兼容版本1的段（其中的事件没有版本号）
+    private static final int VERSION = 2;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final long retentionMillis;
+
+    // 所有段的头部信息，按归档时间升序
+    private final List<SegmentMeta> segments = new CopyOnWriteArrayList<>();
+
+    public IncidentArchive(@Value("${incident.archive.enabled:false}") boolean enabled,
+                           @Value("${incident.archive.directory:archive}") String directory,
+                           @Value("${incident.archive.retention-days:180}") long retentionDays) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.retentionMillis = TimeUnit.DAYS.toMillis(retentionDays);
+        if (enabled) {
+            loadSegments();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 将一批事件写成一个新的段文件，先写临时文件再原子重命名，保证段文件一旦可见就是完整且不再修改的；
+    // 方法返回时段文件及其目录项都已刷到磁盘，调用方可以安全地从内存中移除这些事件
+    public void archive(Collection<Incident> incidents) throws IOException {
+        if (incidents.isEmpty()) {
+            return;
+        }
+        List<Incident> rows = new ArrayList<>(incidents);
+        rows.sort(Comparator.comparing(Incident::getId));
+        long archivedAt = System.currentTimeMillis();
+        long minCreated = Long.MAX_VALUE;
+        long maxCreated = Long.MIN_VALUE;
+        for (Incident incident : rows) {
+            if (incident.getCreatedDate() != null) {
+                minCreated = Math.min(minCreated, incident.getCreatedDate().getTime());
+                maxCreated = Math.max(maxCreated, incident.getCreatedDate().getTime());
+            }
+        }
+        SegmentMeta meta = new SegmentMeta(
+                directory.resolve("segment-" + archivedAt + "-" + UUID.randomUUID().toString().substring(0, 8) + SEGMENT_SUFFIX),
+                VERSION, archivedAt, rows.size(), rows.get(0).getId(), rows.get(rows.size() - 1).getId(), minCreated, maxCreated);
+
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "segment-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                writeHeader(out, meta);
+                DataOutputStream body = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)));
+                writeColumns(body, rows);
+                body.close();
+            }
+            // 归档返回后内存中的事件随即被移除，段文件是唯一副本：重命名前先把数据刷到磁盘，重命名后再刷新目录项
+            fsync(tempFile);
+            Files.move(tempFile, meta.file, StandardCopyOption.ATOMIC_MOVE);
+            fsyncDirectory(directory);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        segments.add(meta);
+        logger.info("Archived {} incidents into segment {}", rows.size(), meta.file.getFileName());
+    }
+
+    // 按id查找归档事件，只读取id范围覆盖该id的段；同一事件被多次归档时以最新的段为准
+    // 事件id在重启后接着归档中的最大id分配（见IncidentService.seedNextIdFromArchive），相同id只可能是同一事件被重复归档
+    public Incident findById(Long id) {
+        if (!enabled || id == null) {
+            return null;
+        }
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            SegmentMeta meta = segments.get(i);
+            if (id < meta.minId || id > meta.maxId) {
+                continue;
+            }
+            List<Incident> rows = readSegment(meta);
+            int index = Collections.binarySearch(rows, Incident.builder().id(id).build(), Comparator.comparing(Incident::getId));
+            if (index >= 0) {
+                return rows.get(index);
+            }
+        }
+        return null;
+    }
+
+    // 按创建时间范围 [from, to] 分页查询归档事件，结果按id升序，只返回id大于afterId的前limit条；同一事件被多次归档时以最新的段为准
+    // 时间范围有交集的段按最小id升序逐个解压，内存中最多保留limit条结果，结果已满后最小id大于已选中最大id的段不再读取
+    public List<Incident> findByCreatedDate(Date from, Date to, long afterId, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (!enabled) {
+            return new ArrayList<>();
+        }
+        long fromTime = from == null ? Long.MIN_VALUE : from.getTime();
+        long toTime = to == null ? Long.MAX_VALUE : to.getTime();
+        List<SegmentMeta> candidates = new ArrayList<>();
+        for (SegmentMeta meta : segments) {
+            if (meta.maxId > afterId && meta.maxCreated >= fromTime && meta.minCreated <= toTime) {
+                candidates.add(meta);
+            }
+        }
+        candidates.sort(Comparator.comparingLong(meta -> meta.minId));
+        TreeMap<Long, Incident> result = new TreeMap<>();
+        Map<Long, Long> archivedAtById = new HashMap<>();
+        for (SegmentMeta meta : candidates) {
+            if (result.size() >= limit && meta.minId > result.lastKey()) {
+                break;
+            }
+            for (Incident incident : readSegment(meta)) {
+                Date createdDate = incident.getCreatedDate();
+                if (incident.getId() <= afterId || createdDate == null
+                        || createdDate.getTime() < fromTime || createdDate.getTime() > toTime) {
+                    continue;
+                }
+                Long archivedAt = archivedAtById.get(incident.getId());
+                if (archivedAt != null && archivedAt > meta.archivedAt) {
+                    continue;
+                }
+                result.put(incident.getId(), incident);
+                archivedAtById.put(incident.getId(), meta.archivedAt);
+                if (result.size() > limit) {
+                    archivedAtById.remove(result.pollLastEntry().getKey());
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    // 已归档事件的最大id，用于重启后让新事件的id接着归档的id分配，避免与归档中的事件重号
+    public long maxArchivedId() {
+        long maxId = 0L;
+        for (SegmentMeta meta : segments) {
+            maxId = Math.max(maxId, meta.maxId);
+        }
+        return maxId;
+    }
+
+    // 删除超过保留期限的段文件
+    public void purgeExpiredSegments(long now) {
+        for (SegmentMeta meta : segments) {
+            if (now - meta.archivedAt > retentionMillis) {
+                try {
+                    Files.deleteIfExists(meta.file);
+                    segments.remove(meta);
+                } catch (IOException e) {
+                    logger.error("Failed to delete expired archive segment {}", meta.file, e);
+                }
+            }
+        }
+    }
+
+    int segmentCountForTesting() {
+        return segments.size();
+    }
+
+    // 启动时只读取各段文件的头部，建立内存中的段索引
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<SegmentMeta> loaded = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX))::iterator) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                    loaded.add(readHeader(in, file));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable archive segment {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load archive segments from " + directory, e);
+        }
+        loaded.sort(Comparator.comparingLong(meta -> meta.archivedAt));
+        segments.addAll(loaded);
+        logger.info("Loaded {} archive segments from {}", loaded.size(), directory);
+    }
+
+    private List<Incident> readSegment(SegmentMeta meta) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(meta.file)))) {
+            readHeader(in, meta.file);
+            DataInputStream body = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+            return readColumns(body, meta.count, meta.formatVersion);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read archive segment " + meta.file, e);
+        }
+    }
+
+    private static void fsync(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    // 部分平台（如Windows）不支持打开目录做fsync，此时依赖文件系统自身保证重命名的持久性
+    private static void fsyncDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            logger.debug("Directory fsync not supported for {}", directory, e);
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream out, SegmentMeta meta) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(meta.formatVersion);
+        out.writeLong(meta.archivedAt);
+        out.writeInt(meta.count);
+        out.writeLong(meta.minId);
+        out.writeLong(meta.maxId);
+        out.writeLong(meta.minCreated);
+        out.writeLong(meta.maxCreated);
+    }
+
+    private static SegmentMeta readHeader(DataInputStream in, Path file) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an incident archive segment: " + file);
+        }
+        int formatVersion = in.readInt();
+        if (formatVersion < 1 || formatVersion > VERSION) {
+            throw new IOException("Unsupported archive segment version " + formatVersion + ": " + file);
+        }
+        long archivedAt = in.readLong();
+        int count = in.readInt();
+        return new SegmentMeta(file, formatVersion, archivedAt, count, in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+
+    // 按列写入：同一列的数据连续存放，id列做差值编码，压缩效果更好
+    private static void writeColumns(DataOutputStream out, List<Incident> rows) throws IOException {
+        long previousId = 0;
+        for (Incident incident : rows) {
+            out.writeLong(incident.getId() - previousId);
+            previousId = incident.getId();
+        }
+        for (Incident incident : rows) {
+            writeTime(out, incident.getCreatedDate());
+        }
+        for (Incident incident : rows) {
+            writeTime(out, incident.getUpdatedDate());
+        }
+        for (Incident incident : rows) {
+            writeTime(out, incident.getFirstSeen());
+        }
+        for (Incident incident : rows) {
+            writeTime(out, incident.getLastSeen());
+        }
+        for (Incident incident : rows) {
+            out.writeLong(incident.getOccurrenceCount() == null ? -1L : incident.getOccurrenceCount());
+        }
+        for (Incident incident : rows) {
+            out.writeLong(incident.getVersion() == null ? -1L : incident.getVersion());
+        }
+        for (Incident incident : rows) {
+            writeString(out, incident.getName());
+        }
+        for (Incident incident : rows) {
+            writeString(out, incident.getDescription());
+        }
+    }
+
+    private static List<Incident> readColumns(DataInputStream in, int count, int formatVersion) throws IOException {
+        List<Incident> rows = new ArrayList<>(count);
+        long id = 0;
+        for (int i = 0; i < count; i++) {
+            id += in.readLong();
+            rows.add(Incident.builder().id(id).build());
+        }
+        for (Incident incident : rows) {
+            incident.setCreatedDate(readTime(in));
+        }
+        for (Incident incident : rows) {
+            incident.setUpdatedDate(readTime(in));
+        }
+        for (Incident incident : rows) {
+            incident.setFirstSeen(readTime(in));
+        }
+        for (Incident incident : rows) {
+            incident.setLastSeen(readTime(in));
+        }
+        for (Incident incident : rows) {
+            long occurrenceCount = in.readLong();
+            incident.setOccurrenceCount(occurrenceCount < 0 ? null : occurrenceCount);
+        }
+        if (formatVersion >= 2) {
+            for (Incident incident : rows) {
+                long version = in.readLong();
+                incident.setVersion(version < 0 ? null : version);
+            }
+        }
+        for (Incident incident : rows) {
+            incident.setName(readString(in));
+        }
+        for (Incident incident : rows) {
+            incident.setDescription(readString(in));
+        }
+        return rows;
+    }
+
+    private static void writeTime(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? NULL_TIME : date.getTime());
+    }
+
+    private static Date readTime(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        return time == NULL_TIME ? null : new Date(time);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static final class SegmentMeta {
+        private final Path file;
+        private final int formatVersion;
+        private final long archivedAt;
+        private final int count;
+        private final long minId;
+        private final long maxId;
+        private final long minCreated;
+        private final long maxCreated;
+
+        private SegmentMeta(Path file, int formatVersion, long archivedAt, int count, long minId, long maxId, long minCreated, long maxCreated) {
+            this.file = file;
+            this.formatVersion = formatVersion;
+            this.archivedAt = archivedAt;
+            this.count = count;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.minCreated = minCreated;
+            this.maxCreated = maxCreated;
+        }
+    }
+}
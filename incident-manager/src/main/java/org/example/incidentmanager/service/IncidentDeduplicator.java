@@ -0,0 +1,126 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.Incident;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// 告警风暴下的事件去重：按配置字段计算指纹，时间窗口内的重复事件合并到已存在的事件上
+@Component
+public class IncidentDeduplicator {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 不同字段之间的分隔符，避免 "a"+"bc" 与 "ab"+"c" 得到相同指纹
+    private static final char FIELD_SEPARATOR = '\u001F';
+
+    private final boolean enabled;
+
+    private final long windowMillis;
+
+    private final List<String> fields;
+
+    // 指纹 -> 事件id 的并发索引
+    private final Map<String, Long> fingerprintIndex = new ConcurrentHashMap<>();
+
+    public IncidentDeduplicator(@Value("${incident.dedup.enabled:false}") boolean enabled,
+                                @Value("${incident.dedup.window-seconds:300}") long windowSeconds,
+                                @Value("${incident.dedup.fields:name}") List<String> fields) {
+        if (windowSeconds < 0) {
+            throw new IllegalArgumentException("Dedup window cannot be negative");
+        }
+        List<String> normalizedFields = new ArrayList<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (!"name".equals(name) && !"description".equals(name)) {
+                throw new IllegalArgumentException("Unsupported dedup field: " + name);
+            }
+            normalizedFields.add(name);
+        }
+        if (normalizedFields.isEmpty()) {
+            throw new IllegalArgumentException("At least one dedup field is required");
+        }
+        this.enabled = enabled;
+        this.windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.fields = List.copyOf(normalizedFields);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 计算事件指纹：去掉首尾空白、合并连续空白并统一小写
+    public String fingerprint(Incident incident) {
+        StringBuilder builder = new StringBuilder();
+        for (String field : fields) {
+            String value = "name".equals(field) ? incident.getName() : incident.getDescription();
+            if (value != null) {
+                builder.append(WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT));
+            }
+            builder.append(FIELD_SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    // 查找时间窗口内指纹相同的事件，索引中失效的条目（事件已删除、内容已修改或超出窗口）顺带清理掉
+    public Incident findDuplicate(String fingerprint, Map<Long, Incident> incidents, long now) {
+        Long id = fingerprintIndex.get(fingerprint);
+        if (id == null) {
+            return null;
+        }
+        Incident existing = incidents.get(id);
+        if (existing != null && fingerprint.equals(fingerprint(existing)) && isWithinWindow(existing, now)) {
+            return existing;
+        }
+        fingerprintIndex.remove(fingerprint, id);
+        return null;
+    }
+
+    // 将一次重复出现合并到已存在的事件上
+    public Incident fold(Incident existing, Date seenAt) {
+        long count = existing.getOccurrenceCount() == null ? 1L : existing.getOccurrenceCount();
+        // 返回合并后的新对象而不是原地修改：已存储的对象可能正被缓存读取方或其他请求在锁外序列化
+        return existing.toBuilder()
+                .occurrenceCount(count + 1)
+                .lastSeen(seenAt)
+                .updatedDate(seenAt)
+                .version(existing.getVersion() == null ? 1L : existing.getVersion() + 1)
+                .build();
+    }
+
+    public void register(String fingerprint, Long id) {
+        fingerprintIndex.put(fingerprint, id);
+    }
+
+    // 修改事件后指纹变化时，移除旧指纹的索引并登记新指纹，之后按新内容上报的事件才能合并到该事件上
+    public void reindex(Incident previous, Incident updated) {
+        String previousFingerprint = fingerprint(previous);
+        String updatedFingerprint = fingerprint(updated);
+        if (!previousFingerprint.equals(updatedFingerprint)) {
+            fingerprintIndex.remove(previousFingerprint, previous.getId());
+            fingerprintIndex.put(updatedFingerprint, updated.getId());
+        }
+    }
+
+    // 事件被删除或清理时移除对应索引，避免索引无限增长
+    public void forget(Incident incident) {
+        fingerprintIndex.remove(fingerprint(incident), incident.getId());
+    }
+
+    int indexSizeForTesting() {
+        return fingerprintIndex.size();
+    }
+
+    private boolean isWithinWindow(Incident incident, long now) {
+        Date lastSeen = incident.getLastSeen() != null ? incident.getLastSeen() : incident.getUpdatedDate();
+        return lastSeen != null && now - lastSeen.getTime() <= windowMillis;
+    }
+}
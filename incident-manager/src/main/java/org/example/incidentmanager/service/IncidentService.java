@@ -1,25 +1,38 @@
 package org.example.incidentmanager.service;
 
 import com.google.common.cache.CacheLoader;
+import org.example.incidentmanager.diagnostics.IncidentOperationEvent;
+import org.example.incidentmanager.event.IncidentEventBus;
+import org.example.incidentmanager.event.IncidentEventType;
+import org.example.incidentmanager.exception.IncidentVersionConflictException;
 import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
 
 @Service
 public class IncidentService {
 
     private static final Logger logger = LoggerFactory.getLogger(IncidentService.class);
 
-    private final Map<Long, Incident> incidentMap = new HashMap<>();
+    // 使用ConcurrentHashMap，以便持有读锁的更新操作按条目CAS替换
+    private final ConcurrentMap<Long, Incident> incidentMap = new ConcurrentHashMap<>();
 
     // 获取incidentMap中所有的事件（仅用于测试等特定场）
    public Collection<Incident> getIncidentsForTesting() {
@@ -33,6 +46,32 @@ public class IncidentService {
 
     private final AtomicLong nextId = new AtomicLong(1L);
 
+    // 告警风暴去重组件，未注入（如直接new出来的服务）或未开启时按原逻辑每次都新建事件
+    @Autowired(required = false)
+    private IncidentDeduplicator incidentDeduplicator;
+
+    // 增量维护的统计计数器，供统计接口查询，未注入时不做统计
+    @Autowired(required = false)
+    private IncidentStatistics incidentStatistics;
+
+    // 冷数据归档，开启后过期事件先写入归档段文件再从内存中移除
+    @Autowired(required = false)
+    private IncidentArchive incidentArchive;
+
+    // 异步事件总线，审计日志等副作用由总线的消费线程处理，锁内只做O(1)的发布
+    @Autowired(required = false)
+    private IncidentEventBus incidentEventBus;
+
+    // 内存中的事件在重启后不再保留，但归档会一直保存，新事件的id需要从归档中的最大id之后开始分配
+    @PostConstruct
+    void seedNextIdFromArchive() {
+        if (incidentArchive != null && incidentArchive.isEnabled()) {
+            long maxArchivedId = incidentArchive.maxArchivedId();
+            nextId.accumulateAndGet(maxArchivedId + 1, Math::max);
+            logger.info("事件id从 {} 开始分配", nextId.get());
+        }
+    }
+
     // 引入读写锁
     private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
     private final ReentrantReadWriteLock.ReadLock readLock = rwLock.readLock();
@@ -50,17 +89,31 @@ public class IncidentService {
     // 定时清理 incidentMap 和 incidentCache 中过期数据的方法
     @Scheduled(cron = "0 0 2 * * *") // 每天凌晨2点执行清理任务，可根据实际需求调整定时表达式
     public void cleanExpiredData() {
+        IncidentOperationEvent operationEvent = new IncidentOperationEvent("cleanExpiredData");
         long currentTime = System.currentTimeMillis();
+        Set<Incident> archivedIncidents = archiveExpiredIncidents(currentTime, operationEvent);
+        List<Incident> expiredIncidents = new ArrayList<>();
+        operationEvent.lockRequested();
         writeLock.lock();
+        operationEvent.lockAcquired();
         try {
+            operationEvent.setEntriesTouched(incidentMap.size());
             // 清理 incidentMap 中的过期数据
             Iterator<Map.Entry<Long, Incident>> incidentMapIterator = incidentMap.entrySet().iterator();
             while (incidentMapIterator.hasNext()) {
                 Map.Entry<Long, Incident> entry = incidentMapIterator.next();
-                if (currentTime - entry.getValue().getUpdatedDate().getTime() > DATA_EXPIRATION_THRESHOLD) {
+                if (isExpired(entry.getValue(), currentTime)) {
+                    if (archivedIncidents != null && !archivedIncidents.contains(entry.getValue())) {
+                        // 开启归档时，未成功归档的事件保留到下次清理
+                        continue;
+                    }
                     incidentMapIterator.remove();
                     // 同时从缓存中移除对应的事件
                     incidentCache.invalidate(entry.getKey());
+                    if (incidentDeduplicator != null) {
+                        incidentDeduplicator.forget(entry.getValue());
+                    }
+                    expiredIncidents.add(entry.getValue());
                 }
             }
             // 主动淘汰部分缓存数据，优化缓存空间（当缓存大小接近最大容量时）
@@ -81,89 +134,244 @@ public class IncidentService {
             }
         } finally {
             writeLock.unlock();
+            operationEvent.lockReleased();
+            operationEvent.commit();
+            if (incidentStatistics != null) {
+                incidentStatistics.recordExpired(currentTime, expiredIncidents.size());
+            }
+            for (Incident expiredIncident : expiredIncidents) {
+                publishEvent(IncidentEventType.EXPIRED, expiredIncident, currentTime);
+            }
             verifyIncidentMapAndCacheConsistency();
         }
     }
 
 
+    // 开启归档时，在读锁下找出过期事件，在锁外写入段文件，返回写入成功的事件；未开启归档返回null
+    private Set<Incident> archiveExpiredIncidents(long currentTime, IncidentOperationEvent operationEvent) {
+        if (incidentArchive == null || !incidentArchive.isEnabled()) {
+            return null;
+        }
+        List<Incident> expiredIncidents = new ArrayList<>();
+        operationEvent.lockRequested();
+        readLock.lock();
+        operationEvent.lockAcquired();
+        try {
+            for (Incident incident : incidentMap.values()) {
+                if (isExpired(incident, currentTime)) {
+                    expiredIncidents.add(incident);
+                }
+            }
+        } finally {
+            readLock.unlock();
+            operationEvent.lockReleased();
+        }
+        Set<Incident> archivedIncidents = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            incidentArchive.archive(expiredIncidents);
+            archivedIncidents.addAll(expiredIncidents);
+        } catch (IOException e) {
+            logger.error("归档过期事件失败，本次不清理这些事件，数量: {}", expiredIncidents.size(), e);
+        }
+        incidentArchive.purgeExpiredSegments(currentTime);
+        return archivedIncidents;
+    }
+
+    private boolean isExpired(Incident incident, long currentTime) {
+        return currentTime - incident.getUpdatedDate().getTime() > DATA_EXPIRATION_THRESHOLD;
+    }
+
     // 创建事件方法
     public Incident createIncident(Incident incident) {
         if (null == incident) {
             logger.error("创建事件对象是null");
             throw new NullPointerException("Incident cannot be null");
         }
+        IncidentOperationEvent operationEvent = new IncidentOperationEvent("createIncident");
+        operationEvent.setEntriesTouched(1);
         Date currentDate = new Date();
+        // 指纹在锁外计算，锁内只做O(1)的索引查找和合并
+        String fingerprint = isDedupEnabled() ? incidentDeduplicator.fingerprint(incident) : null;
+        operationEvent.lockRequested();
         writeLock.lock();
+        operationEvent.lockAcquired();
         try {
+            if (fingerprint != null) {
+                Incident duplicate = incidentDeduplicator.findDuplicate(fingerprint, incidentMap, currentDate.getTime());
+                if (duplicate != null) {
+                    // 重复事件合并到已有事件上，不新增条目；与更新一样写入新对象替换旧对象，不修改已发布出去的对象
+                    Incident folded = incidentDeduplicator.fold(duplicate, currentDate);
+                    incidentMap.put(folded.getId(), folded);
+                    incidentCache.put(folded.getId(), folded);
+                    if (incidentStatistics != null) {
+                        incidentStatistics.recordDeduplicated();
+                    }
+                    publishEvent(IncidentEventType.DEDUPLICATED, folded, currentDate.getTime());
+                    operationEvent.setIncidentId(folded.getId());
+                    return folded;
+                }
+            }
             incident.setId(nextId.getAndIncrement());
             incident.setCreatedDate(currentDate);
             incident.setUpdatedDate(currentDate);
+            incident.setOccurrenceCount(1L);
+            incident.setFirstSeen(currentDate);
+            incident.setLastSeen(currentDate);
+            incident.setVersion(1L);
             incidentMap.put(incident.getId(), incident);
 
             try {
                 // 将新创建的事件放入缓存
                 incidentCache.put(incident.getId(), incident);
             } catch (Exception e) {
-                logger.error("Failed to put new incident into cache. Incident: {}, Error: {}", incident, e.getMessage());
+                logger.error("Failed to put new incident into cache. Id: {}, Error: {}", incident.getId(), e.getMessage());
                 // 从incidentMap中移除刚才插入的数据，保持一致性（可根据业务需求决定是否这样处理，也可采用其他补偿机制）
                 incidentMap.remove(incident.getId());
                 throw e;
             }
+            if (fingerprint != null) {
+                incidentDeduplicator.register(fingerprint, incident.getId());
+            }
+            if (incidentStatistics != null) {
+                incidentStatistics.recordCreated(currentDate.getTime());
+            }
+            publishEvent(IncidentEventType.CREATED, incident, currentDate.getTime());
+            operationEvent.setIncidentId(incident.getId());
 
             return incident;
         } finally {
             writeLock.unlock();
+            operationEvent.lockReleased();
+            operationEvent.commit();
         }
     }
 
-    // 修改事件方法
+    // 修改事件方法（整体替换），请求体中带version时按乐观锁校验，版本不一致抛出冲突异常；不带version时后写者覆盖
     public Incident updateIncident(Incident updatedIncident) {
         if (null == updatedIncident) {
             logger.error("更新事件对象是null");
             throw new NullPointerException("Incident cannot be null");
         }
-        writeLock.lock();
+        return applyUpdate("updateIncident", updatedIncident.getId(), updatedIncident.getVersion(), existingIncident -> {
+            updatedIncident.setCreatedDate(existingIncident.getCreatedDate());
+            // 出现次数等字段由服务端维护，不允许客户端覆盖
+            updatedIncident.setOccurrenceCount(existingIncident.getOccurrenceCount());
+            updatedIncident.setFirstSeen(existingIncident.getFirstSeen());
+            updatedIncident.setLastSeen(existingIncident.getLastSeen());
+            return updatedIncident;
+        });
+    }
+
+    // 局部修改事件方法，只修改patch中非null的字段
+    public Incident patchIncident(Long id, IncidentPatch patch) {
+        if (null == patch) {
+            logger.error("局部更新事件对象是null");
+            throw new NullPointerException("Incident patch cannot be null");
+        }
+        return applyUpdate("patchIncident", id, patch.getVersion(), existingIncident -> {
+            Incident.IncidentBuilder builder = existingIncident.toBuilder();
+            if (patch.getName() != null) {
+                builder.name(patch.getName());
+            }
+            if (patch.getDescription() != null) {
+                builder.description(patch.getDescription());
+            }
+            return builder.build();
+        });
+    }
+
+    // 更新只持有读锁（只与删除、清理等结构性操作互斥），不同事件的更新可以并发执行
+    // 同一事件的并发更新通过incidentMap.replace按条目做CAS，失败后基于最新值重试或返回版本冲突
+    private Incident applyUpdate(String operation, Long id, Long expectedVersion, UnaryOperator<Incident> mutation) {
+        IncidentOperationEvent operationEvent = new IncidentOperationEvent(operation);
+        operationEvent.setIncidentId(id);
+        int attempts = 0;
+        operationEvent.lockRequested();
+        readLock.lock();
+        operationEvent.lockAcquired();
         try {
-            if (incidentMap.containsKey(updatedIncident.getId())) {
+            while (true) {
+                // CAS失败重试时同一条目会被多次读取
+                operationEvent.setEntriesTouched(++attempts);
+                Incident existingIncident = id == null ? null : incidentMap.get(id);
+                if (existingIncident == null) {
+                    logger.error("尝试更新不存在的事件，事件id: {}", id);
+                    throw new IllegalArgumentException("Incident with id " + id + " not found");
+                }
+                long currentVersion = versionOf(existingIncident);
+                if (expectedVersion != null && expectedVersion != currentVersion) {
+                    throw new IncidentVersionConflictException(id, expectedVersion, currentVersion);
+                }
                 Date currentDate = new Date();
+                Incident updatedIncident = mutation.apply(existingIncident);
+                updatedIncident.setId(id);
                 updatedIncident.setUpdatedDate(currentDate);
-                updatedIncident.setCreatedDate(incidentMap.get(updatedIncident.getId()).getCreatedDate());
-                incidentMap.put(updatedIncident.getId(), updatedIncident);
+                updatedIncident.setVersion(currentVersion + 1);
+                if (!incidentMap.replace(id, existingIncident, updatedIncident)) {
+                    // 其他线程已抢先修改该事件，重新读取后再比较
+                    continue;
+                }
 
                 int maxRetry = 3; // 设置最大重试次数
                 boolean cacheUpdated = false;
                 for (int i = 0; i < maxRetry; i++) {
                     try {
-                        // 更新缓存中的对应事件
-                        incidentCache.put(updatedIncident.getId(), updatedIncident);
+                        // 更新缓存中的对应事件，并发更新时只保留版本更高的值
+                        incidentCache.asMap().merge(id, updatedIncident,
+                                (cached, updated) -> versionOf(cached) > versionOf(updated) ? cached : updated);
                         cacheUpdated = true;
                         break;
                     } catch (Exception e) {
-                        logger.error("更新缓存失败，事件id: {}, retry times: {}", updatedIncident.getId(), i + 1, e);
+                        logger.error("更新缓存失败，事件id: {}, retry times: {}", id, i + 1, e);
                     }
                 }
 
                 if (!cacheUpdated) {
-                    // 根据业务需求决定是否回滚incidentMap中的更新操作，这里示例回滚
-                    incidentMap.put(updatedIncident.getId(), incidentMap.get(updatedIncident.getId()));
-                    logger.error("Failed to update cache after {} retries, rollback incidentMap update for id: {}", maxRetry, updatedIncident.getId());
+                    // 回滚incidentMap中的更新操作
+                    incidentMap.replace(id, updatedIncident, existingIncident);
+                    logger.error("Failed to update cache after {} retries, rollback incidentMap update for id: {}", maxRetry, id);
+                    throw new IllegalStateException("Failed to update incident with id " + id);
+                }
+                // 更新持有读锁，与持有写锁的去重查找互斥，新建事件不会看到更新到一半的指纹索引
+                if (isDedupEnabled()) {
+                    incidentDeduplicator.reindex(existingIncident, updatedIncident);
                 }
+                if (incidentStatistics != null) {
+                    incidentStatistics.recordUpdated(currentDate.getTime());
+                }
+                publishEvent(IncidentEventType.UPDATED, updatedIncident, currentDate.getTime());
 
                 return updatedIncident;
             }
-            logger.error("尝试更新不存在的事件，事件id: {}", updatedIncident.getId());
-            throw new IllegalArgumentException("Incident with id " + updatedIncident.getId() + " not found");
         } finally {
-            writeLock.unlock();
+            readLock.unlock();
+            operationEvent.lockReleased();
+            operationEvent.commit();
         }
     }
 
+    private static long versionOf(Incident incident) {
+        return incident.getVersion() == null ? 0L : incident.getVersion();
+    }
+
     // 删除事件方法
     public void deleteIncident(Long id) {
+        IncidentOperationEvent operationEvent = new IncidentOperationEvent("deleteIncident");
+        operationEvent.setIncidentId(id);
+        operationEvent.setEntriesTouched(1);
+        operationEvent.lockRequested();
         writeLock.lock();
+        operationEvent.lockAcquired();
         try {
             if (incidentMap.containsKey(id)) {
-                incidentMap.remove(id);
+                Incident removedIncident = incidentMap.remove(id);
+                if (incidentDeduplicator != null) {
+                    incidentDeduplicator.forget(removedIncident);
+                }
+                if (incidentStatistics != null) {
+                    incidentStatistics.recordDeleted(System.currentTimeMillis());
+                }
+                publishEvent(IncidentEventType.DELETED, removedIncident, System.currentTimeMillis());
                 try {
                     // 从缓存中移除对应的事件
                     incidentCache.invalidate(id);
@@ -177,6 +385,8 @@ public class IncidentService {
             }
         } finally {
             writeLock.unlock();
+            operationEvent.lockReleased();
+            operationEvent.commit();
         }
     }
 
@@ -185,12 +395,16 @@ public class IncidentService {
 
     // 获取所有事件方法，先从缓存中获取，如果缓存没有则从内存存储（IncidentMap）中获取并放入缓存
     public List<Incident> getAllIncidents() {
+        IncidentOperationEvent operationEvent = new IncidentOperationEvent("getAllIncidents");
         boolean needUpdateCache = (System.currentTimeMillis() - lastCacheUpdateTime > CACHE_UPDATE_INTERVAL)
                 && incidentCache.size() < incidentMap.size();
+        operationEvent.setCacheRebuild(needUpdateCache);
         if (needUpdateCache) {
             try {
+                operationEvent.lockRequested();
                 // 使用可中断锁，避免线程长时间等待锁导致死锁等问题
                 writeLock.lockInterruptibly();
+                operationEvent.lockAcquired();
                 Map<Long, Incident> cachedIncidents = new HashMap<>();
                 // 直接从 incidentMap 中获取数据添加到缓存和 cachedIncidents 中
                 for (Map.Entry<Long, Incident> entry : incidentMap.entrySet()) {
@@ -205,6 +419,7 @@ public class IncidentService {
                     cachedIncidents.put(key, value);
                 }
                 lastCacheUpdateTime = System.currentTimeMillis();
+                operationEvent.setEntriesTouched(cachedIncidents.size());
                 return new ArrayList<>(cachedIncidents.values());
             } catch (InterruptedException e) {
                 logger.error("Thread interrupted while trying to acquire write lock for cache update.", e);
@@ -212,14 +427,22 @@ public class IncidentService {
                 return new ArrayList<>(); // 返回空列表，避免返回不确定状态的数据
             } finally {
                 writeLock.unlock();
+                operationEvent.lockReleased();
+                operationEvent.commit();
             }
         } else {
             try {
+                operationEvent.lockRequested();
                 readLock.lockInterruptibly(); // 同样使用可中断锁
+                operationEvent.lockAcquired();
                 try {
-                    return new ArrayList<>(incidentCache.asMap().values());
+                    List<Incident> incidents = new ArrayList<>(incidentCache.asMap().values());
+                    operationEvent.setEntriesTouched(incidents.size());
+                    return incidents;
                 } finally {
                     readLock.unlock();
+                    operationEvent.lockReleased();
+                    operationEvent.commit();
                 }
             } catch (InterruptedException e) {
                 logger.error("Thread interrupted while trying to acquire read lock for cache access.", e);
@@ -229,6 +452,16 @@ public class IncidentService {
         }
     }
 
+    private void publishEvent(IncidentEventType type, Incident incident, long timestamp) {
+        if (incidentEventBus != null) {
+            incidentEventBus.publish(type, incident.getId(), incident.getVersion(), timestamp);
+        }
+    }
+
+    private boolean isDedupEnabled() {
+        return incidentDeduplicator != null && incidentDeduplicator.isEnabled();
+    }
+
     private void verifyIncidentMapAndCacheConsistency() {
         Set<Long> incidentMapKeys = incidentMap.keySet();
         Set<Long> incidentCacheKeys = incidentCache.asMap().keySet();
@@ -0,0 +1,121 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.IncidentStats;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// 事件统计：由IncidentService在增删改及过期清理时增量维护，查询只读计数器，不访问incidentMap也不获取读写锁
+@Component
+public class IncidentStatistics {
+
+    public static final String RESOLUTION_MINUTE = "minute";
+    public static final String RESOLUTION_HOUR = "hour";
+
+    // 分钟粒度保留1天，小时粒度保留7天
+    private static final int MINUTE_BUCKETS = 24 * 60;
+    private static final int HOUR_BUCKETS = 7 * 24;
+
+    private final LongAdder created = new LongAdder();
+    private final LongAdder updated = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+
+    private final TimeBucketCounter[] createdSeries = newSeries();
+    private final TimeBucketCounter[] updatedSeries = newSeries();
+    private final TimeBucketCounter[] deletedSeries = newSeries();
+    private final TimeBucketCounter[] expiredSeries = newSeries();
+
+    public void recordCreated(long timestamp) {
+        created.increment();
+        add(createdSeries, timestamp, 1);
+    }
+
+    // 去重合并的事件只计入deduplicated，不算作新建
+    public void recordDeduplicated() {
+        deduplicated.increment();
+    }
+
+    public void recordUpdated(long timestamp) {
+        updated.increment();
+        add(updatedSeries, timestamp, 1);
+    }
+
+    public void recordDeleted(long timestamp) {
+        deleted.increment();
+        add(deletedSeries, timestamp, 1);
+    }
+
+    public void recordExpired(long timestamp, int count) {
+        if (count <= 0) {
+            return;
+        }
+        expired.add(count);
+        add(expiredSeries, timestamp, count);
+    }
+
+    public static int maxBuckets(String resolution) {
+        return RESOLUTION_HOUR.equals(resolution) ? HOUR_BUCKETS : MINUTE_BUCKETS;
+    }
+
+    // 返回截至now的最近bucketCount个桶（按时间升序），复杂度只与桶数有关
+    public IncidentStats snapshot(String resolution, int bucketCount, long now) {
+        int seriesIndex = seriesIndex(resolution);
+        if (bucketCount < 1 || bucketCount > maxBuckets(resolution)) {
+            throw new IllegalArgumentException("Bucket count must be between 1 and " + maxBuckets(resolution));
+        }
+        TimeBucketCounter reference = createdSeries[seriesIndex];
+        long currentBucket = reference.bucketOf(now);
+        List<IncidentStats.Bucket> buckets = new ArrayList<>(bucketCount);
+        for (long bucket = currentBucket - bucketCount + 1; bucket <= currentBucket; bucket++) {
+            buckets.add(IncidentStats.Bucket.builder()
+                    .start(new Date(bucket * reference.getBucketMillis()))
+                    .created(createdSeries[seriesIndex].get(bucket))
+                    .updated(updatedSeries[seriesIndex].get(bucket))
+                    .deleted(deletedSeries[seriesIndex].get(bucket))
+                    .expired(expiredSeries[seriesIndex].get(bucket))
+                    .build());
+        }
+        long createdTotal = created.sum();
+        long deletedTotal = deleted.sum();
+        long expiredTotal = expired.sum();
+        return IncidentStats.builder()
+                .created(createdTotal)
+                .updated(updated.sum())
+                .deleted(deletedTotal)
+                .expired(expiredTotal)
+                .deduplicated(deduplicated.sum())
+                .active(createdTotal - deletedTotal - expiredTotal)
+                .resolution(resolution)
+                .buckets(buckets)
+                .build();
+    }
+
+    private static int seriesIndex(String resolution) {
+        if (RESOLUTION_MINUTE.equals(resolution)) {
+            return 0;
+        }
+        if (RESOLUTION_HOUR.equals(resolution)) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Unsupported resolution: " + resolution);
+    }
+
+    private static TimeBucketCounter[] newSeries() {
+        return new TimeBucketCounter[]{
+                new TimeBucketCounter(TimeUnit.MINUTES.toMillis(1), MINUTE_BUCKETS),
+                new TimeBucketCounter(TimeUnit.HOURS.toMillis(1), HOUR_BUCKETS)
+        };
+    }
+
+    private static void add(TimeBucketCounter[] series, long timestamp, long delta) {
+        for (TimeBucketCounter counter : series) {
+            counter.add(timestamp, delta);
+        }
+    }
+}
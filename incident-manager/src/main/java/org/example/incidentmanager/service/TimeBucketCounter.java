@@ -0,0 +1,61 @@
+package org.example.incidentmanager.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 按固定时间粒度分桶的环形计数器，无锁实现
+// 每个槽位用一个long同时保存桶编号（高32位）和计数（低32位），桶编号不一致说明槽位属于更早的周期，写入时通过CAS直接覆盖
+final class TimeBucketCounter {
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final long bucketMillis;
+
+    private final AtomicLongArray slots;
+
+    TimeBucketCounter(long bucketMillis, int bucketCount) {
+        if (bucketMillis <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("Bucket size and count must be positive");
+        }
+        this.bucketMillis = bucketMillis;
+        this.slots = new AtomicLongArray(bucketCount);
+    }
+
+    long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    int getBucketCount() {
+        return slots.length();
+    }
+
+    long bucketOf(long timestamp) {
+        return Math.floorDiv(timestamp, bucketMillis);
+    }
+
+    void add(long timestamp, long delta) {
+        long bucket = bucketOf(timestamp);
+        int index = (int) Math.floorMod(bucket, (long) slots.length());
+        long tag = (bucket & COUNT_MASK) << 32;
+        while (true) {
+            long current = slots.get(index);
+            long updated;
+            if ((current & ~COUNT_MASK) == tag) {
+                updated = tag | ((current + delta) & COUNT_MASK);
+            } else if ((current >>> 32) > (bucket & COUNT_MASK)) {
+                // 槽位已被更新的周期占用，迟到的旧数据直接丢弃
+                return;
+            } else {
+                updated = tag | (delta & COUNT_MASK);
+            }
+            if (slots.compareAndSet(index, current, updated)) {
+                return;
+            }
+        }
+    }
+
+    // 返回指定桶的计数，槽位已被其他周期占用时视为0
+    long get(long bucket) {
+        long current = slots.get((int) Math.floorMod(bucket, (long) slots.length()));
+        return (current >>> 32) == (bucket & COUNT_MASK) ? current & COUNT_MASK : 0L;
+    }
+}
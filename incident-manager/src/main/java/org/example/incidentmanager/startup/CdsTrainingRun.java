@@ -0,0 +1,64 @@
+package org.example.incidentmanager.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+// CDS训练运行：应用启动完成后对自身发出一轮典型请求，让首个请求路径上的类（DispatcherServlet初始化、Jackson序列化、
+// 参数校验、IncidentService等）都被加载，然后正常退出，由JVM在退出时把加载过的类写入CDS归档（-XX:ArchiveClassesAtExit）
+// 只在构建CDS归档时通过 -Dincident.cds.training=true 开启
+@Component
+@ConditionalOnProperty(name = "incident.cds.training", havingValue = "true")
+public class CdsTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CdsTrainingRun.class);
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        String port = context.getEnvironment().getProperty("local.server.port", "8080");
+        URI baseUri = URI.create("http://localhost:" + port);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        try {
+            HttpResponse<String> created = send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"CDS training\",\"description\":\"Warm up the request path\"}"))
+                    .build());
+            String id = created.body().replaceAll("(?s).*\"id\"\\s*:\\s*(\\d+).*", "$1");
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident")).GET().build());
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident/" + id))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"description\":\"Patched during CDS training\"}"))
+                    .build());
+            // 校验失败和找不到事件的异常处理路径
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"\",\"description\":\"\"}"))
+                    .build());
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident/stats")).GET().build());
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident/" + id)).DELETE().build());
+            send(httpClient, HttpRequest.newBuilder(baseUri.resolve("/incident/" + id)).DELETE().build());
+            logger.info("CDS training requests completed");
+        } catch (Exception e) {
+            logger.error("CDS training requests failed, the archive will only cover startup classes", e);
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+    private static HttpResponse<String> send(HttpClient httpClient, HttpRequest request) throws Exception {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        logger.info("CDS training {} {} -> {}", request.method(), request.uri().getPath(), response.statusCode());
+        return response;
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.diagnostics.JfrRecordingManager;
+import org.example.incidentmanager.model.JfrRecordingStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = DiagnosticsController.class, properties = "incident.diagnostics.jfr.enabled=true")
+public class DiagnosticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private JfrRecordingManager jfrRecordingManager;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(jfrRecordingManager.getMaxDurationSeconds()).thenReturn(600L);
+    }
+
+    // 测试开始录制API（正常情况）
+    @Test
+    public void startRecording_ShouldReturnCreated() throws Exception {
+        JfrRecordingStatus status = JfrRecordingStatus.builder().id(1).state("RUNNING").durationSeconds(30).build();
+        Mockito.when(jfrRecordingManager.start(30)).thenReturn(status);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/diagnostics/jfr").param("durationSeconds", "30"))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.state").value("RUNNING"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.durationSeconds").value(30))
+                .andDo(print());
+    }
+
+    // 测试开始录制API（已有录制在运行）
+    @Test
+    public void startRecording_AlreadyRunning_ShouldReturnConflict() throws Exception {
+        Mockito.when(jfrRecordingManager.start(60)).thenReturn(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/diagnostics/jfr"))
+                .andExpect(status().isConflict())
+                .andDo(print());
+    }
+
+    // 测试开始录制API（时长超出范围）
+    @Test
+    public void startRecording_InvalidDuration_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.post("/diagnostics/jfr").param("durationSeconds", "601"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+        Mockito.verify(jfrRecordingManager, Mockito.never()).start(Mockito.anyLong());
+    }
+
+    // 测试停止录制API
+    @Test
+    public void stopRecording_ShouldReturnDestination() throws Exception {
+        JfrRecordingStatus status = JfrRecordingStatus.builder().id(1).state("CLOSED").destination("recordings/incident-1.jfr").build();
+        Mockito.when(jfrRecordingManager.stop()).thenReturn(status);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/diagnostics/jfr"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.destination").value("recordings/incident-1.jfr"))
+                .andDo(print());
+    }
+
+    // 测试停止录制和查询状态API（没有录制）
+    @Test
+    public void noRecording_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.delete("/diagnostics/jfr"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/diagnostics/jfr"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.service.IncidentArchive;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(IncidentArchiveController.class)
+public class IncidentArchiveControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IncidentArchive incidentArchive;
+
+    // 测试按id查询归档事件API（正常情况）
+    @Test
+    public void getArchivedIncident_ShouldReturnIncident() throws Exception {
+        Incident incident = Incident.builder().id(1L).name("Archived Incident").description("Archived").build();
+        Mockito.when(incidentArchive.findById(1L)).thenReturn(incident);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive/1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.name").value("Archived Incident"))
+                .andDo(print());
+    }
+
+    // 测试按id查询归档事件API（事件不存在情况）
+    @Test
+    public void getArchivedIncident_NotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive/1"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // 测试按时间范围查询归档事件API
+    @Test
+    public void getArchivedIncidents_ShouldReturnIncidents() throws Exception {
+        Incident incident = Incident.builder().id(1L).name("Archived Incident").description("Archived").build();
+        Mockito.when(incidentArchive.findByCreatedDate(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt())).thenReturn(List.of(incident));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("from", "2024-11-01T00:00:00Z")
+                        .param("to", "2024-11-30T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1))
+                .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("from", "2024-11-30T00:00:00Z")
+                        .param("to", "2024-11-01T00:00:00Z"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // 测试按时间范围查询归档事件API（带毫秒和时区偏移的时间也能解析）
+    @Test
+    public void getArchivedIncidents_WithOffsetAndMillis_ShouldReturnIncidents() throws Exception {
+        Mockito.when(incidentArchive.findByCreatedDate(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("from", "2024-11-01T08:00:00.000+08:00"))
+                .andExpect(status().isOk())
+                .andDo(print());
+        Mockito.verify(incidentArchive).findByCreatedDate(
+                ArgumentMatchers.eq(Date.from(Instant.parse("2024-11-01T00:00:00Z"))), ArgumentMatchers.isNull(),
+                ArgumentMatchers.eq(0L), ArgumentMatchers.eq(500));
+    }
+
+    // 测试按时间范围查询归档事件API（分页参数传给服务层，每页条数超出范围）
+    @Test
+    public void getArchivedIncidents_Paging() throws Exception {
+        Mockito.when(incidentArchive.findByCreatedDate(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt())).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("afterId", "42")
+                        .param("limit", "100"))
+                .andExpect(status().isOk())
+                .andDo(print());
+        Mockito.verify(incidentArchive).findByCreatedDate(null, null, 42L, 100);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("limit", "1001"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // 测试按时间范围查询归档事件API（时间格式错误）
+    @Test
+    public void getArchivedIncidents_InvalidDate_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/archive")
+                        .param("from", "yesterday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value(400))
+                .andDo(print());
+    }
+}
@@ -1,13 +1,17 @@
 package org.example.incidentmanager.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.incidentmanager.exception.IncidentVersionConflictException;
 import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
 import org.example.incidentmanager.service.IncidentService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
@@ -68,6 +72,33 @@ public class IncidentControllerTest {
                 .andDo(print());
     }
 
+    // 测试重复上报被合并到已有事件时返回200
+    @Test
+    public void createIncident_FoldedDuplicate_ShouldReturnOk() throws Exception {
+        Incident incidentToCreate = Incident.builder()
+                .name("Test Incident")
+                .description("This is a test Incident")
+                .build();
+
+        Incident existingIncident = Incident.builder()
+                .id(1L)
+                .name("Test Incident")
+                .description("This is a test Incident")
+                .occurrenceCount(2L)
+                .version(2L)
+                .build();
+
+        Mockito.when(incidentService.createIncident(incidentToCreate)).thenReturn(existingIncident);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/incident")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(incidentToCreate)))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.occurrenceCount").value(2))
+                .andDo(print());
+    }
+
     // 测试创建不正常事件API（不正常情况）
     @Test
     public void createIncident_InvalidIncident_ShouldReturnBadRequest() throws Exception {
@@ -238,4 +269,120 @@ public class IncidentControllerTest {
                 .andExpect(status().isNotFound())
                 .andDo(print());
     }
+
+    // 测试条件修改事件API（If-Match中的版本号传给服务层，响应带新的ETag）
+    @Test
+    public void updateIncident_WithIfMatch_ShouldReturnETag() throws Exception {
+        Incident incident = Incident.builder()
+                .id(1L)
+                .name("Updated Incident")
+                .description("Updated Description")
+                .build();
+        Incident expected = incident.toBuilder().version(3L).build();
+        Incident updatedIncident = incident.toBuilder().version(4L).build();
+        Mockito.when(incidentService.updateIncident(expected)).thenReturn(updatedIncident);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/incident")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(incident)))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.version").value(4))
+                .andDo(print());
+    }
+
+    // 测试条件修改事件API（版本冲突情况）
+    @Test
+    public void updateIncident_VersionConflict_ShouldReturnConflict() throws Exception {
+        Incident incident = Incident.builder()
+                .id(1L)
+                .name("Updated Incident")
+                .description("Updated Description")
+                .version(1L)
+                .build();
+        Mockito.when(incidentService.updateIncident(incident)).thenThrow(new IncidentVersionConflictException(1L, 1L, 2L));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/incident")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(incident)))
+                .andExpect(status().isConflict())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""))
+                .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/incident")
+                        .header(HttpHeaders.IF_MATCH, "abc")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(incident)))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+
+    // 测试If-Match为*时不做版本校验，事件不存在返回404
+    @Test
+    public void updateIncident_WildcardIfMatch_ShouldSkipVersionCheck() throws Exception {
+        Incident incident = Incident.builder()
+                .id(1L)
+                .name("Updated Incident")
+                .description("Updated Description")
+                .build();
+        Incident updatedIncident = incident.toBuilder().version(4L).build();
+        Mockito.when(incidentService.updateIncident(incident)).thenReturn(updatedIncident);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/incident")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(incident)))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""))
+                .andDo(print());
+
+        Mockito.when(incidentService.patchIncident(2L, IncidentPatch.builder().name("Renamed").build()))
+                .thenThrow(new IllegalArgumentException("Incident with id 2 not found"));
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/incident/2")
+                        .header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // 测试局部修改事件API（正常情况）
+    @Test
+    public void patchIncident_ShouldReturnPatchedIncident() throws Exception {
+        Incident patchedIncident = Incident.builder()
+                .id(1L)
+                .name("Test Incident")
+                .description("Patched Description")
+                .version(2L)
+                .build();
+        Mockito.when(incidentService.patchIncident(ArgumentMatchers.eq(1L), ArgumentMatchers.any(IncidentPatch.class)))
+                .thenReturn(patchedIncident);
+
+        mockMvc.perform(MockMvcRequestBuilders.patch("/incident/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"description\":\"Patched Description\"}"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.description").value("Patched Description"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"2\""))
+                .andDo(print());
+
+        Mockito.verify(incidentService).patchIncident(1L, IncidentPatch.builder().description("Patched Description").version(1L).build());
+    }
+
+    // 测试局部修改事件API（参数不合法情况）
+    @Test
+    public void patchIncident_BlankName_ShouldReturnBadRequest() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.patch("/incident/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"   \"}"))
+                .andExpect(status().isBadRequest())
+                .andDo(print()).andReturn();
+
+        List<String> responseMessages = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<>() {
+        });
+        assertThat(responseMessages).contains("Name cannot be blank");
+    }
 }
@@ -0,0 +1,66 @@
+package org.example.incidentmanager.controller;
+
+import org.example.incidentmanager.event.IncidentEventBus;
+import org.example.incidentmanager.model.IncidentStats;
+import org.example.incidentmanager.service.IncidentStatistics;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(IncidentStatsController.class)
+public class IncidentStatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IncidentStatistics incidentStatistics;
+
+    @MockBean
+    private IncidentEventBus incidentEventBus;
+
+    // 测试获取统计API（正常情况）
+    @Test
+    public void getStats_ShouldReturnStats() throws Exception {
+        IncidentStats stats = IncidentStats.builder()
+                .created(3)
+                .active(2)
+                .resolution("hour")
+                .buckets(List.of(IncidentStats.Bucket.builder().created(3).build()))
+                .build();
+        Mockito.when(incidentStatistics.snapshot(ArgumentMatchers.eq("hour"), ArgumentMatchers.eq(1), ArgumentMatchers.anyLong()))
+                .thenReturn(stats);
+        Mockito.when(incidentEventBus.getDroppedCount()).thenReturn(5L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/stats").param("resolution", "hour").param("buckets", "1"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.created").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.active").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.eventsDropped").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.buckets[0].created").value(3))
+                .andDo(print());
+    }
+
+    // 测试获取统计API（参数不合法情况）
+    @Test
+    public void getStats_InvalidParams_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/stats").param("resolution", "day"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/incident/stats").param("buckets", "0"))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+    }
+}
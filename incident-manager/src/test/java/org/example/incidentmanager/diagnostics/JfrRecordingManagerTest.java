@@ -0,0 +1,94 @@
+package org.example.incidentmanager.diagnostics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
+import org.example.incidentmanager.model.JfrRecordingStatus;
+import org.example.incidentmanager.service.IncidentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JfrRecordingManagerTest {
+
+    @TempDir
+    Path recordingDir;
+
+    private JfrRecordingManager jfrRecordingManager;
+
+    @BeforeEach
+    void setUp() {
+        jfrRecordingManager = new JfrRecordingManager(recordingDir.toString(), 60, 10, "default");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jfrRecordingManager.stop();
+    }
+
+    // 录制期间的服务操作都会产生IncidentOperation事件，停止后写入文件
+    @Test
+    void testRecordingCapturesServiceOperations() throws Exception {
+        IncidentService incidentService = new IncidentService();
+        JfrRecordingStatus started = jfrRecordingManager.start(30);
+        assertEquals("RUNNING", started.getState());
+
+        Incident incident = incidentService.createIncident(Incident.builder().name("Disk full").description("host-1").build());
+        incidentService.patchIncident(incident.getId(), IncidentPatch.builder().description("host-2").build());
+        incidentService.getAllIncidents();
+        incidentService.deleteIncident(incident.getId());
+
+        JfrRecordingStatus stopped = jfrRecordingManager.stop();
+        assertEquals("CLOSED", stopped.getState());
+        Path file = Paths.get(stopped.getDestination());
+        assertTrue(Files.exists(file));
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("org.example.incidentmanager.IncidentOperation"))
+                .collect(Collectors.toList());
+        List<String> operations = events.stream().map(event -> event.getString("operation")).collect(Collectors.toList());
+        assertEquals(List.of("createIncident", "patchIncident", "getAllIncidents", "deleteIncident"), operations);
+
+        RecordedEvent create = events.get(0);
+        assertEquals(incident.getId().longValue(), create.getLong("incidentId"));
+        assertEquals(1, create.getInt("entriesTouched"));
+        assertTrue(create.getDuration("lockHoldTime").toNanos() > 0);
+        assertFalse(events.get(2).getBoolean("cacheRebuild"));
+        assertEquals(1, events.get(2).getInt("entriesTouched"));
+    }
+
+    // 同一时间只允许一个录制
+    @Test
+    void testSecondStartWhileRunningReturnsNull() throws Exception {
+        assertNotNull(jfrRecordingManager.start(30));
+        assertNull(jfrRecordingManager.start(30));
+        assertEquals("RUNNING", jfrRecordingManager.status().getState());
+    }
+
+    @Test
+    void testDurationOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> jfrRecordingManager.start(0));
+        assertThrows(IllegalArgumentException.class, () -> jfrRecordingManager.start(61));
+    }
+
+    @Test
+    void testUnknownSettingsFailAtConstruction() {
+        assertThrows(IllegalArgumentException.class, () -> new JfrRecordingManager(recordingDir.toString(), 60, 10, "no-such-template"));
+    }
+
+    @Test
+    void testStopWithoutRecordingReturnsNull() {
+        assertNull(jfrRecordingManager.stop());
+        assertNull(jfrRecordingManager.status());
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.incidentmanager.event;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.service.IncidentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncidentEventBusTest {
+
+    private IncidentEventBus incidentEventBus;
+
+    @AfterEach
+    void tearDown() {
+        if (incidentEventBus != null) {
+            incidentEventBus.stop();
+        }
+    }
+
+    // 记录收到的事件（拷贝为文本，因为槽位会被复用）以及批次数量
+    private static class RecordingHandler implements IncidentEventHandler {
+        private final List<Long> sequences = new CopyOnWriteArrayList<>();
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private volatile int batches;
+
+        @Override
+        public void onEvent(IncidentEvent event, boolean endOfBatch) {
+            sequences.add(event.getSequence());
+            events.add(event.getType() + ":" + event.getIncidentId());
+            if (endOfBatch) {
+                batches++;
+            }
+        }
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(size, list.size());
+    }
+
+    @Test
+    void testEveryConsumerReceivesEventsInOrder() throws InterruptedException {
+        RecordingHandler first = new RecordingHandler();
+        RecordingHandler second = new RecordingHandler();
+        incidentEventBus = new IncidentEventBus(true, 1024, List.of(first, second));
+        incidentEventBus.start();
+
+        for (long i = 0; i < 500; i++) {
+            assertTrue(incidentEventBus.publish(IncidentEventType.CREATED, i, 1L, i));
+        }
+
+        awaitSize(first.sequences, 500);
+        awaitSize(second.sequences, 500);
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, first.sequences.get(i));
+            assertEquals("CREATED:" + i, second.events.get(i));
+        }
+        assertTrue(first.batches >= 1);
+    }
+
+    @Test
+    void testConcurrentPublishersLoseNothing() throws InterruptedException {
+        RecordingHandler handler = new RecordingHandler();
+        incidentEventBus = new IncidentEventBus(true, 1 << 16, List.of(handler));
+        incidentEventBus.start();
+        int threadCount = 8;
+        int perThread = 5000;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < perThread; j++) {
+                        incidentEventBus.publish(IncidentEventType.UPDATED, (long) j, 2L, j);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        awaitSize(handler.sequences, threadCount * perThread);
+        assertEquals(0, incidentEventBus.getDroppedCount());
+        for (int i = 0; i < handler.sequences.size(); i++) {
+            assertEquals(i, handler.sequences.get(i));
+        }
+    }
+
+    @Test
+    void testFullRingDropsInsteadOfBlocking() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Long> received = new CopyOnWriteArrayList<>();
+        IncidentEventHandler slowHandler = (event, endOfBatch) -> {
+            release.await();
+            received.add(event.getSequence());
+        };
+        incidentEventBus = new IncidentEventBus(true, 8, List.of(slowHandler));
+        incidentEventBus.start();
+
+        long start = System.nanoTime();
+        int accepted = 0;
+        for (long i = 0; i < 100; i++) {
+            if (incidentEventBus.publish(IncidentEventType.CREATED, i, 1L, i)) {
+                accepted++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1), "Publishing must not wait for a stalled consumer");
+        assertEquals(8, accepted);
+        assertEquals(92, incidentEventBus.getDroppedCount());
+        release.countDown();
+        awaitSize(received, 8);
+    }
+
+    @Test
+    void testFailingHandlerDoesNotStopConsumer() throws InterruptedException {
+        List<Long> received = new CopyOnWriteArrayList<>();
+        incidentEventBus = new IncidentEventBus(true, 16, List.of((event, endOfBatch) -> {
+            received.add(event.getIncidentId());
+            if (event.getIncidentId() == 1L) {
+                throw new IllegalStateException("boom");
+            }
+        }));
+        incidentEventBus.start();
+
+        incidentEventBus.publish(IncidentEventType.CREATED, 1L, 1L, 0);
+        incidentEventBus.publish(IncidentEventType.CREATED, 2L, 1L, 0);
+
+        awaitSize(received, 2);
+    }
+
+    @Test
+    void testServiceMutationsArePublished() throws InterruptedException {
+        RecordingHandler handler = new RecordingHandler();
+        incidentEventBus = new IncidentEventBus(true, 64, List.of(handler));
+        incidentEventBus.start();
+        IncidentService incidentService = new IncidentService();
+        ReflectionTestUtils.setField(incidentService, "incidentEventBus", incidentEventBus);
+
+        Incident created = incidentService.createIncident(Incident.builder().name("Name").description("Test incident").build());
+        incidentService.updateIncident(Incident.builder().id(created.getId()).name("Name").description("Updated").build());
+        incidentService.deleteIncident(created.getId());
+
+        awaitSize(handler.events, 3);
+        List<String> expected = new ArrayList<>();
+        expected.add("CREATED:" + created.getId());
+        expected.add("UPDATED:" + created.getId());
+        expected.add("DELETED:" + created.getId());
+        assertEquals(expected, new ArrayList<>(handler.events));
+    }
+
+    @Test
+    void testRingSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new IncidentEventBus(true, 100, List.of()));
+    }
+}
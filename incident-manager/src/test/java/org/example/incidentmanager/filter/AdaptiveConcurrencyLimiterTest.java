@@ -0,0 +1,121 @@
+package org.example.incidentmanager.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long QUEUED = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void testRequestsAboveLimitAreRejected() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testLimitGrowsWhenFastAndSaturated() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0);
+
+        saturate(limiter, FAST, 100);
+
+        assertTrue(limiter.getLimit() > 2, "Limit should grow while latency stays at the baseline");
+        assertTrue(limiter.getLimit() <= 10);
+    }
+
+    @Test
+    void testSlowEndpointLearnedWithoutLoadDoesNotReduceLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(5, 1, 10, 2.0);
+        // 低负载时就一直很慢，说明这就是正常耗时，而不是排队
+        unloaded(limiter, SLOW, 100);
+
+        saturate(limiter, SLOW, 100);
+
+        assertTrue(limiter.getLimit() >= 5, "Latency at the no-load baseline should not be treated as overload");
+    }
+
+    @Test
+    void testLimitBacksOffWhenLatencyRisesAboveBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0);
+        unloaded(limiter, FAST, 100);
+        assertEquals(10, limiter.getLimit());
+
+        saturate(limiter, QUEUED, 20);
+
+        assertTrue(limiter.getLimit() < 10, "Limit should drop once latency exceeds the baseline by the tolerance");
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testSustainedOverloadKeepsLatencyNearBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 200, 2.0);
+        unloaded(limiter, FAST, 100);
+
+        // 单线程服务端：每个请求的耗时等于同时在处理的请求数乘以1毫秒。持续过载数千个请求后，
+        // 基线不能被排队延迟抬高，上限应停在延迟约为基线tolerance倍的位置，而不是涨回最大值
+        for (int i = 0; i < 2000; i++) {
+            int acquired = acquireAll(limiter);
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(acquired * FAST);
+            }
+        }
+
+        assertTrue(limiter.getLimit() <= 4, "Limit should stay near tolerance x baseline, was " + limiter.getLimit());
+    }
+
+    @Test
+    void testLimitRecoversWhenLatencyReturnsToBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 10, 2.0);
+        unloaded(limiter, FAST, 100);
+        saturate(limiter, QUEUED, 20);
+        int reduced = limiter.getLimit();
+
+        saturate(limiter, FAST, 100);
+
+        assertTrue(limiter.getLimit() > reduced, "Limit should grow again after the overload ends");
+    }
+
+    @Test
+    void testInvalidLimitsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(0, 1, 10, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 6, 10, 2.0));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 1, 10, 0.5));
+    }
+
+    // 每次只有一个请求在执行，用于建立无负载基线
+    private static void unloaded(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int requests) {
+        for (int i = 0; i < requests; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(latencyNanos);
+        }
+    }
+
+    // 每轮占满当前上限，再以给定耗时全部释放
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            int acquired = acquireAll(limiter);
+            for (int j = 0; j < acquired; j++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+
+    private static int acquireAll(AdaptiveConcurrencyLimiter limiter) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+}
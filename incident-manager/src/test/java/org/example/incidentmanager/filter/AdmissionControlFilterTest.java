@@ -0,0 +1,47 @@
+package org.example.incidentmanager.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlFilterTest {
+
+    // 写请求上限为1，读请求上限为1
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(true, 2, 1, 1, 2.0);
+
+    @Test
+    void testRequestOverLimitIsRejectedWithRetryAfter() throws Exception {
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/incident"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("PUT", "/incident"), rejected, new MockFilterChain()));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(0, filter.getWriteLimiter().getInFlight());
+    }
+
+    @Test
+    void testReadsAndWritesHaveSeparateBudgets() throws Exception {
+        MockHttpServletResponse read = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("DELETE", "/incident/1"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/incident"), read, new MockFilterChain()));
+
+        assertEquals(200, read.getStatus());
+    }
+
+    @Test
+    void testOtherPathsAreNotLimited() throws Exception {
+        MockHttpServletResponse other = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/incident"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("POST", "/actuator/health"), other, new MockFilterChain()));
+
+        assertEquals(200, other.getStatus());
+    }
+}
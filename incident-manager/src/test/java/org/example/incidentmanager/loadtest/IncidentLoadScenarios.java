@@ -0,0 +1,139 @@
+package org.example.incidentmanager.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import javax.management.MBeanServerConnection;
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 压测入口：每个场景以独立进程启动一个打包好的应用实例（或压测 loadtest.target-url 指定的外部实例），按开放模型施压后输出JSON格式的结果
+// 类名不符合测试类命名规则，普通的 mvn test 不会执行，需要通过 mvn -Ploadtest verify 在打包之后运行
+public class IncidentLoadScenarios {
+
+    private static final String DEFAULT_SCENARIOS = "ALERT_STORM,DASHBOARD_POLLING,MIXED_CRUD";
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private static final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    static Stream<LoadScenario> scenarios() {
+        return Arrays.stream(System.getProperty("loadtest.scenarios", DEFAULT_SCENARIOS).split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(LoadScenario::valueOf);
+    }
+
+    @ParameterizedTest
+    @MethodSource("scenarios")
+    public void runScenario(LoadScenario scenario) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", scenario.getDefaultRate());
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", scenario.getDefaultDuration().getSeconds()));
+        int maxOutstanding = Integer.getInteger("loadtest.max-outstanding", 10000);
+
+        OpenModelLoadGenerator.Result result;
+        Map<String, Object> gc = null;
+        Map<String, Object> heap = null;
+        try (TargetApplication target = TargetApplication.start()) {
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(target.getBaseUri(), maxOutstanding);
+            generator.seed(scenario.getSeedIncidents());
+            MBeanServerConnection connection = target.getMBeanServerConnection();
+            if (connection == null) {
+                result = generator.run(scenario, rate, duration);
+            } else {
+                try (JvmStatsSampler sampler = new JvmStatsSampler(connection, 1000)) {
+                    result = generator.run(scenario, rate, duration);
+                    gc = sampler.gcStats();
+                    heap = sampler.heapStats();
+                }
+            }
+        }
+
+        Map<String, Object> report = toReport(result, gc, heap);
+        if (result.getDropped() > 0) {
+            System.err.println("WARNING: " + report.get("warning"));
+        }
+        File outputDir = new File(System.getProperty("loadtest.output-dir", "target/loadtest"));
+        outputDir.mkdirs();
+        File outputFile = new File(outputDir, System.getProperty("loadtest.label", "run") + "-" + scenario.name().toLowerCase() + ".json");
+        objectMapper.writeValue(outputFile, report);
+        System.out.println(objectMapper.writeValueAsString(report));
+
+        assertTrue(result.getSent() > 0);
+    }
+
+    private static Map<String, Object> toReport(OpenModelLoadGenerator.Result result, Map<String, Object> gc, Map<String, Object> heap) {
+        Histogram histogram = result.getHistogram();
+        double elapsedSeconds = result.getElapsedNanos() / 1_000_000_000.0;
+
+        Map<String, Object> requests = new LinkedHashMap<>();
+        requests.put("sent", result.getSent());
+        requests.put("completed", histogram.getTotalCount());
+        requests.put("dropped", result.getDropped());
+        requests.put("errors", result.getErrors());
+        requests.put("timeouts", result.getTimeouts());
+        // 被准入控制拒绝的请求数（503）
+        LongAdder rejected = result.getStatusCounts().get(503);
+        requests.put("rejected", rejected == null ? 0L : rejected.sum());
+
+        Map<String, Long> statusCounts = new TreeMap<>();
+        result.getStatusCounts().forEach((status, count) -> statusCounts.put(String.valueOf(status), count.sum()));
+
+        // 压测方所在机器的信息，服务端的GC和堆内存见gc、heap
+        Map<String, Object> client = new LinkedHashMap<>();
+        client.put("javaVersion", System.getProperty("java.version"));
+        client.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("label", System.getProperty("loadtest.label", "run"));
+        report.put("scenario", result.getScenario().name());
+        report.put("targetRatePerSecond", result.getTargetRate());
+        report.put("durationSeconds", result.getDuration().getSeconds());
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("throughputPerSecond", histogram.getTotalCount() / elapsedSeconds);
+        report.put("requests", requests);
+        // 被跳过的请求没有发出，不在任何延迟分位数中，此时分位数低估了排队造成的延迟
+        if (result.getDropped() > 0) {
+            report.put("warning", result.getDropped() + " of " + (result.getSent() + result.getDropped())
+                    + " scheduled requests were skipped because loadtest.max-outstanding was reached; latency percentiles exclude them"
+                    + " and understate queueing delay, lower the rate or raise loadtest.max-outstanding");
+        }
+        report.put("statusCounts", statusCounts);
+        report.put("latency", latencyStats(histogram, result));
+        report.put("admittedLatency", latencyStats(result.getAdmittedHistogram(), result));
+        // 未连接服务端JMX时不输出gc和heap
+        if (gc != null) {
+            report.put("gc", gc);
+            report.put("heap", heap);
+        }
+        report.put("client", client);
+        return report;
+    }
+
+    // 超时和连接失败的请求按实际等待时长计入分位数，errors、timeouts为其中的数量
+    private static Map<String, Object> latencyStats(Histogram histogram, OpenModelLoadGenerator.Result result) {
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("unit", "microseconds");
+        latency.put("count", histogram.getTotalCount());
+        latency.put("errors", result.getErrors());
+        latency.put("timeouts", result.getTimeouts());
+        latency.put("min", histogram.getMinValue());
+        latency.put("mean", histogram.getMean());
+        for (double percentile : PERCENTILES) {
+            latency.put("p" + String.valueOf(percentile).replace(".0", "").replace(".", "_"), histogram.getValueAtPercentile(percentile));
+        }
+        latency.put("max", histogram.getMaxValue());
+        return latency;
+    }
+}
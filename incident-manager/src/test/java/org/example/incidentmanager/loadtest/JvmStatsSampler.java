@@ -0,0 +1,93 @@
+package org.example.incidentmanager.loadtest;
+
+import javax.management.MBeanServerConnection;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 通过JMX连接被压测的服务端JVM，压测期间按固定间隔采样堆内存，并统计GC次数和耗时的增量
+public class JvmStatsSampler implements AutoCloseable {
+
+    private final long intervalMillis;
+
+    private final MemoryMXBean memoryBean;
+
+    private final List<GarbageCollectorMXBean> gcBeans;
+
+    private final long gcCountAtStart;
+
+    private final long gcTimeAtStart;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private volatile long maxHeapUsed;
+
+    private volatile long maxHeapCommitted;
+
+    private volatile int samples;
+
+    public JvmStatsSampler(MBeanServerConnection connection, long intervalMillis) throws IOException {
+        this.intervalMillis = intervalMillis;
+        this.memoryBean = ManagementFactory.getPlatformMXBean(connection, MemoryMXBean.class);
+        this.gcBeans = ManagementFactory.getPlatformMXBeans(connection, GarbageCollectorMXBean.class);
+        this.gcCountAtStart = totalGcCount();
+        this.gcTimeAtStart = totalGcTimeMillis();
+        this.thread = new Thread(this::sampleLoop, "loadtest-jvm-sampler");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join();
+    }
+
+    public Map<String, Object> gcStats() {
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", totalGcCount() - gcCountAtStart);
+        gc.put("timeMillis", totalGcTimeMillis() - gcTimeAtStart);
+        return gc;
+    }
+
+    public Map<String, Object> heapStats() {
+        MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("samples", samples);
+        stats.put("maxUsedBytes", maxHeapUsed);
+        stats.put("maxCommittedBytes", maxHeapCommitted);
+        stats.put("usedAtEndBytes", heap.getUsed());
+        stats.put("limitBytes", heap.getMax());
+        return stats;
+    }
+
+    private void sampleLoop() {
+        while (running) {
+            try {
+                MemoryUsage heap = memoryBean.getHeapMemoryUsage();
+                maxHeapUsed = Math.max(maxHeapUsed, heap.getUsed());
+                maxHeapCommitted = Math.max(maxHeapCommitted, heap.getCommitted());
+                samples++;
+                Thread.sleep(intervalMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private long totalGcCount() {
+        return gcBeans.stream().mapToLong(bean -> Math.max(0, bean.getCollectionCount())).sum();
+    }
+
+    private long totalGcTimeMillis() {
+        return gcBeans.stream().mapToLong(bean -> Math.max(0, bean.getCollectionTime())).sum();
+    }
+}
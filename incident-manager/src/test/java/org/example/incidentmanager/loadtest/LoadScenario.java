@@ -0,0 +1,120 @@
+package org.example.incidentmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 压测场景：每个场景给出默认的到达速率、持续时间，以及每次到达时要发出的请求
+public enum LoadScenario {
+
+    // 告警风暴：高频创建事件，名称集中在少数几个告警上
+    ALERT_STORM(500, Duration.ofSeconds(60), 0) {
+        @Override
+        HttpRequest nextRequest(URI baseUri, long maxId) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return post(baseUri, "Disk full on host-" + random.nextInt(10), "Disk usage above 95% on /var");
+        }
+    },
+
+    // 看板轮询：定期拉取事件列表和统计数据
+    DASHBOARD_POLLING(200, Duration.ofSeconds(60), 5000) {
+        @Override
+        HttpRequest nextRequest(URI baseUri, long maxId) {
+            if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                return get(baseUri.resolve("/incident/stats?resolution=minute&buckets=60"));
+            }
+            return get(baseUri.resolve("/incident"));
+        }
+    },
+
+    // 混合读写：40%列表查询、30%创建、20%局部修改、10%删除
+    MIXED_CRUD(300, Duration.ofSeconds(60), 1000) {
+        @Override
+        HttpRequest nextRequest(URI baseUri, long maxId) {
+            return mixedRequest(baseUri, maxId);
+        }
+    },
+
+    // 过载：预置大量事件后以远超处理能力的速率发出80%列表查询、20%创建（全量列表查询每秒只能处理几十个，默认速率已是数倍），
+    // 观察准入控制放行请求的尾延迟和503数量，可与 --incident.admission.enabled=false 的结果对比
+    OVERLOAD(200, Duration.ofSeconds(60), 20000) {
+        @Override
+        HttpRequest nextRequest(URI baseUri, long maxId) {
+            if (ThreadLocalRandom.current().nextInt(5) == 0) {
+                return post(baseUri, "Overload " + ThreadLocalRandom.current().nextInt(100000), "Created under overload");
+            }
+            return get(baseUri.resolve("/incident"));
+        }
+    },
+
+    // 长时间稳定性：与混合读写相同的请求分布，较低速率、较长时间，关注延迟和堆内存是否随时间漂移
+    SOAK(100, Duration.ofMinutes(30), 1000) {
+        @Override
+        HttpRequest nextRequest(URI baseUri, long maxId) {
+            return mixedRequest(baseUri, maxId);
+        }
+    };
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final int defaultRate;
+
+    private final Duration defaultDuration;
+
+    private final int seedIncidents;
+
+    LoadScenario(int defaultRate, Duration defaultDuration, int seedIncidents) {
+        this.defaultRate = defaultRate;
+        this.defaultDuration = defaultDuration;
+        this.seedIncidents = seedIncidents;
+    }
+
+    // maxId为目前已知的最大事件id，用于生成修改、删除请求
+    abstract HttpRequest nextRequest(URI baseUri, long maxId);
+
+    int getDefaultRate() {
+        return defaultRate;
+    }
+
+    Duration getDefaultDuration() {
+        return defaultDuration;
+    }
+
+    // 场景开始前预先创建的事件数量
+    int getSeedIncidents() {
+        return seedIncidents;
+    }
+
+    static HttpRequest post(URI baseUri, String name, String description) {
+        return HttpRequest.newBuilder(baseUri.resolve("/incident"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"" + name + "\",\"description\":\"" + description + "\"}"))
+                .build();
+    }
+
+    private static HttpRequest get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest mixedRequest(URI baseUri, long maxId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(10);
+        long id = maxId < 1 ? 1 : random.nextLong(1, maxId + 1);
+        if (roll < 4) {
+            return get(baseUri.resolve("/incident"));
+        }
+        if (roll < 7) {
+            return post(baseUri, "Incident " + random.nextInt(100000), "Created by mixed CRUD load");
+        }
+        if (roll < 9) {
+            return HttpRequest.newBuilder(baseUri.resolve("/incident/" + id))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"description\":\"Patched " + random.nextInt(1000) + "\"}"))
+                    .build();
+        }
+        return HttpRequest.newBuilder(baseUri.resolve("/incident/" + id)).timeout(REQUEST_TIMEOUT).DELETE().build();
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.incidentmanager.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// 开放模型压测：请求按固定到达速率发出，不等待上一个请求返回，服务端变慢时请求会堆积而不是让压测方自动降速
+// 延迟从计划发出时间而不是实际发出时间开始计算，避免协调遗漏（coordinated omission）掩盖排队造成的延迟；
+// 未完成请求达到上限后跳过的请求不计入延迟，结果中出现dropped时分位数会偏低，压测报告会给出警告
+public class OpenModelLoadGenerator {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient;
+
+    private final URI baseUri;
+
+    private final int maxOutstanding;
+
+    // 目前已知的最大事件id，由创建请求的响应更新
+    private final AtomicLong maxId = new AtomicLong();
+
+    public OpenModelLoadGenerator(URI baseUri, int maxOutstanding) {
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.baseUri = baseUri;
+        this.maxOutstanding = maxOutstanding;
+    }
+
+    // 预先创建一批事件，供查询、修改、删除请求使用，这部分请求不计入结果
+    public void seed(int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = httpClient.send(
+                    LoadScenario.post(baseUri, "Seed incident " + i, "Created before the measured run"),
+                    HttpResponse.BodyHandlers.ofString());
+            recordCreatedId(response);
+        }
+    }
+
+    public Result run(LoadScenario scenario, int ratePerSecond, Duration duration) throws InterruptedException {
+        if (ratePerSecond < 1) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        Result result = new Result(scenario, ratePerSecond, duration);
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long totalRequests = duration.getSeconds() * ratePerSecond;
+        AtomicInteger outstanding = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        for (long i = 0; i < totalRequests; i++) {
+            long intendedStart = startNanos + i * periodNanos;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // 未完成请求过多说明服务端已经跟不上，直接计为丢弃，避免压测方自身耗尽内存；丢弃的请求没有延迟数据
+            if (outstanding.get() >= maxOutstanding) {
+                result.dropped.increment();
+                continue;
+            }
+            outstanding.incrementAndGet();
+            result.sent.increment();
+            HttpRequest request = scenario.nextRequest(baseUri, maxId.get());
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        long latencyNanos = System.nanoTime() - intendedStart;
+                        outstanding.decrementAndGet();
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+                        result.histogram.recordValue(latencyMicros);
+                        if (error != null) {
+                            // 超时或连接失败的请求无法区分是否被放行，按实际等待时长同时计入放行延迟，避免最慢的请求从结果中消失
+                            result.admittedHistogram.recordValue(latencyMicros);
+                            result.errors.increment();
+                            if (isTimeout(error)) {
+                                result.timeouts.increment();
+                            }
+                            return;
+                        }
+                        result.statusCounts.computeIfAbsent(response.statusCode(), code -> new LongAdder()).increment();
+                        if (response.statusCode() != 503) {
+                            result.admittedHistogram.recordValue(latencyMicros);
+                        }
+                        recordCreatedId(response);
+                    });
+        }
+        // 等待所有已发出的请求结束，最多等待一个请求超时时长
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        result.elapsedNanos = System.nanoTime() - startNanos;
+        return result;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordCreatedId(HttpResponse<String> response) {
+        if (response.statusCode() != 201) {
+            return;
+        }
+        try {
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id != null) {
+                maxId.accumulateAndGet(id.asLong(), Math::max);
+            }
+        } catch (Exception ignored) {
+            // 响应体不是预期的JSON时不影响压测本身
+        }
+    }
+
+    public static final class Result {
+
+        private final LoadScenario scenario;
+
+        private final int targetRate;
+
+        private final Duration duration;
+
+        // 单位：微秒，自动扩展范围
+        private final Histogram histogram = new ConcurrentHistogram(3);
+
+        // 未被准入控制拒绝（非503）的请求的延迟，包含超时和连接失败的请求
+        private final Histogram admittedHistogram = new ConcurrentHistogram(3);
+
+        private final LongAdder sent = new LongAdder();
+
+        private final LongAdder dropped = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private final LongAdder timeouts = new LongAdder();
+
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+        private long elapsedNanos;
+
+        private Result(LoadScenario scenario, int targetRate, Duration duration) {
+            this.scenario = scenario;
+            this.targetRate = targetRate;
+            this.duration = duration;
+        }
+
+        public LoadScenario getScenario() {
+            return scenario;
+        }
+
+        public int getTargetRate() {
+            return targetRate;
+        }
+
+        public Duration getDuration() {
+            return duration;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public Histogram getAdmittedHistogram() {
+            return admittedHistogram;
+        }
+
+        public long getSent() {
+            return sent.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public Map<Integer, LongAdder> getStatusCounts() {
+            return statusCounts;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
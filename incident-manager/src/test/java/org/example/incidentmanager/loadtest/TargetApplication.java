@@ -0,0 +1,135 @@
+package org.example.incidentmanager.loadtest;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 被压测的应用：默认以独立进程启动打包好的jar，压测方与服务端不共享JVM，GC和堆内存数据只反映服务端；
+// 配置了 loadtest.target-url 时改为压测外部已运行的实例，此时只有同时配置 loadtest.jmx-url 才采集GC和堆内存
+public class TargetApplication implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final URI baseUri;
+
+    private final Process process;
+
+    private final JMXConnector jmxConnector;
+
+    private TargetApplication(URI baseUri, Process process, JMXConnector jmxConnector) {
+        this.baseUri = baseUri;
+        this.process = process;
+        this.jmxConnector = jmxConnector;
+    }
+
+    public static TargetApplication start() throws Exception {
+        String targetUrl = System.getProperty("loadtest.target-url");
+        if (targetUrl != null && !targetUrl.isBlank()) {
+            String jmxUrl = System.getProperty("loadtest.jmx-url");
+            JMXConnector connector = jmxUrl == null || jmxUrl.isBlank() ? null : JMXConnectorFactory.connect(new JMXServiceURL(jmxUrl));
+            return new TargetApplication(URI.create(targetUrl), null, connector);
+        }
+        return launch();
+    }
+
+    // 启动打包好的jar，应用端口和JMX端口都取本机空闲端口，JMX只监听本机
+    private static TargetApplication launch() throws Exception {
+        String appJar = System.getProperty("loadtest.app-jar");
+        if (appJar == null || !new File(appJar).isFile()) {
+            throw new IllegalStateException("Application jar not found: " + appJar + ", run mvn -Ploadtest verify or set loadtest.target-url");
+        }
+        int port = freePort();
+        int jmxPort = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(splitArgs(System.getProperty("loadtest.app-jvm-args", "")));
+        command.add("-Dcom.sun.management.jmxremote.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.rmi.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.host=127.0.0.1");
+        command.add("-Dcom.sun.management.jmxremote.authenticate=false");
+        command.add("-Dcom.sun.management.jmxremote.ssl=false");
+        command.add("-jar");
+        command.add(appJar);
+        command.add("--server.port=" + port);
+        command.addAll(splitArgs(System.getProperty("loadtest.app-args", "")));
+
+        File log = new File(System.getProperty("loadtest.output-dir", "target/loadtest"), "app-" + port + ".log");
+        log.getParentFile().mkdirs();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log).start();
+        URI baseUri = URI.create("http://localhost:" + port);
+        try {
+            awaitReady(baseUri, process, log);
+            JMXConnector connector = JMXConnectorFactory.connect(
+                    new JMXServiceURL("service:jmx:rmi:///jndi/rmi://127.0.0.1:" + jmxPort + "/jmxrmi"));
+            return new TargetApplication(baseUri, process, connector);
+        } catch (Exception e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    // 服务端JVM的MBean连接，没有可用的JMX连接时返回null
+    public MBeanServerConnection getMBeanServerConnection() throws IOException {
+        return jmxConnector == null ? null : jmxConnector.getMBeanServerConnection();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (jmxConnector != null) {
+            jmxConnector.close();
+        }
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitReady(URI baseUri, Process process, File log) throws Exception {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/incident")).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited during startup, see " + log);
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 端口还未监听，继续等待
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Application did not start within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static List<String> splitArgs(String args) {
+        return args.isBlank() ? List.of() : Arrays.asList(args.trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,182 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncidentArchiveTest {
+
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    @TempDir
+    Path archiveDir;
+
+    private IncidentArchive incidentArchive;
+
+    private IncidentService incidentService;
+
+    @BeforeEach
+    void setUp() {
+        incidentArchive = new IncidentArchive(true, archiveDir.toString(), 180);
+        incidentService = new IncidentService();
+        ReflectionTestUtils.setField(incidentService, "incidentArchive", incidentArchive);
+    }
+
+    private Incident newIncident(long id, long createdTime) {
+        return Incident.builder()
+                .id(id)
+                .name("Incident " + id)
+                .description("Description " + id)
+                .createdDate(new Date(createdTime))
+                .updatedDate(new Date(createdTime))
+                .occurrenceCount(id % 2 == 0 ? null : id)
+                .build();
+    }
+
+    @Test
+    void testArchivedIncidentsCanBeFoundById() throws IOException {
+        Incident incident = newIncident(7L, 1000L);
+        incidentArchive.archive(List.of(newIncident(3L, 500L), incident, newIncident(5L, 800L)));
+
+        assertEquals(incident, incidentArchive.findById(7L));
+        assertNull(incidentArchive.findById(4L));
+        assertNull(incidentArchive.findById(100L));
+    }
+
+    @Test
+    void testTimeRangeQueryOnlyReturnsMatchingIncidents() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L), newIncident(2L, 2000L)));
+        incidentArchive.archive(List.of(newIncident(3L, 3000L), newIncident(4L, 4000L)));
+
+        List<Incident> incidents = incidentArchive.findByCreatedDate(new Date(1500L), new Date(3000L), 0L, 100);
+
+        assertEquals(List.of(2L, 3L), incidents.stream().map(Incident::getId).toList());
+        assertEquals(4, incidentArchive.findByCreatedDate(null, null, 0L, 100).size());
+    }
+
+    @Test
+    void testTimeRangeQueryIsPaged() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L), newIncident(2L, 2000L)));
+        incidentArchive.archive(List.of(newIncident(3L, 3000L), newIncident(4L, 4000L)));
+        incidentArchive.archive(List.of(newIncident(5L, 5000L)));
+
+        List<Incident> firstPage = incidentArchive.findByCreatedDate(null, null, 0L, 2);
+        List<Incident> secondPage = incidentArchive.findByCreatedDate(null, null, 2L, 2);
+        List<Incident> lastPage = incidentArchive.findByCreatedDate(null, null, 4L, 2);
+
+        assertEquals(List.of(1L, 2L), firstPage.stream().map(Incident::getId).toList());
+        assertEquals(List.of(3L, 4L), secondPage.stream().map(Incident::getId).toList());
+        assertEquals(List.of(5L), lastPage.stream().map(Incident::getId).toList());
+        assertThrows(IllegalArgumentException.class, () -> incidentArchive.findByCreatedDate(null, null, 0L, 0));
+    }
+
+    @Test
+    void testSegmentsAreReloadedFromDisk() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L)));
+
+        IncidentArchive reopened = new IncidentArchive(true, archiveDir.toString(), 180);
+
+        assertEquals(1, reopened.segmentCountForTesting());
+        assertEquals("Incident 1", reopened.findById(1L).getName());
+    }
+
+    @Test
+    void testLatestSegmentWinsForRearchivedIncident() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L)));
+        Incident rearchived = newIncident(1L, 1000L);
+        rearchived.setDescription("Changed");
+        incidentArchive.archive(List.of(rearchived));
+
+        assertEquals("Changed", incidentArchive.findById(1L).getDescription());
+        assertEquals(1, incidentArchive.findByCreatedDate(null, null, 0L, 100).size());
+    }
+
+    // 模拟重启：新的服务实例从归档中的最大id之后分配id，不会与归档中的事件重号
+    @Test
+    void testNextIdContinuesAfterArchivedIdsOnRestart() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L), newIncident(42L, 2000L)));
+
+        IncidentService restarted = new IncidentService();
+        ReflectionTestUtils.setField(restarted, "incidentArchive", new IncidentArchive(true, archiveDir.toString(), 180));
+        restarted.seedNextIdFromArchive();
+        Incident created = restarted.createIncident(Incident.builder().name("New").description("After restart").build());
+
+        assertEquals(43L, created.getId());
+        assertEquals("Incident 42", incidentArchive.findById(42L).getName());
+    }
+
+    @Test
+    void testExpiredSegmentsArePurged() throws IOException {
+        incidentArchive.archive(List.of(newIncident(1L, 1000L)));
+
+        incidentArchive.purgeExpiredSegments(System.currentTimeMillis() + 181 * DAY);
+
+        assertEquals(0, incidentArchive.segmentCountForTesting());
+        try (Stream<Path> files = Files.list(archiveDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    // 服务层产生的事件（带版本号、出现次数等服务端维护的字段）归档后所有字段保持不变
+    @Test
+    void testIncidentFromServiceRoundTripsThroughArchive() {
+        Incident created = incidentService.createIncident(Incident.builder().name("Old").description("Old incident").build());
+        incidentService.patchIncident(created.getId(), IncidentPatch.builder().description("Patched").build());
+        Incident stored = incidentService.getIncidentsForTesting().iterator().next();
+        stored.setUpdatedDate(new Date(System.currentTimeMillis() - 3 * DAY));
+
+        incidentService.cleanExpiredData();
+
+        Incident archived = incidentArchive.findById(created.getId());
+        assertEquals(2L, archived.getVersion());
+        assertEquals(stored, archived);
+    }
+
+    @Test
+    void testCleanExpiredDataArchivesInsteadOfDropping() {
+        Incident expired = incidentService.createIncident(Incident.builder().name("Old").description("Old incident").build());
+        expired.setUpdatedDate(new Date(System.currentTimeMillis() - 3 * DAY));
+        Incident fresh = incidentService.createIncident(Incident.builder().name("New").description("New incident").build());
+
+        incidentService.cleanExpiredData();
+
+        assertEquals(1, incidentService.getIncidentsForTesting().size());
+        assertEquals(fresh.getId(), incidentService.getIncidentsForTesting().iterator().next().getId());
+        assertEquals("Old incident", incidentArchive.findById(expired.getId()).getDescription());
+    }
+
+    @Test
+    void testIncidentsAreKeptWhenArchivingFails() throws IOException {
+        // 归档目录位置被普通文件占用，写入段文件会失败
+        Path blocked = archiveDir.resolve("blocked");
+        Files.createFile(blocked);
+        ReflectionTestUtils.setField(incidentService, "incidentArchive", new IncidentArchive(true, blocked.toString(), 180));
+        Incident expired = incidentService.createIncident(Incident.builder().name("Old").description("Old incident").build());
+        expired.setUpdatedDate(new Date(System.currentTimeMillis() - 3 * DAY));
+
+        incidentService.cleanExpiredData();
+
+        assertEquals(1, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testDisabledArchiveReturnsNothing() {
+        IncidentArchive disabled = new IncidentArchive(false, archiveDir.toString(), 180);
+
+        assertNull(disabled.findById(1L));
+        assertTrue(disabled.findByCreatedDate(null, null, 0L, 100).isEmpty());
+    }
+}
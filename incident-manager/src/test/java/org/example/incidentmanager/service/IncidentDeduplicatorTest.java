@@ -0,0 +1,169 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncidentDeduplicatorTest {
+
+    private IncidentService incidentService;
+
+    @BeforeEach
+    void setUp() {
+        incidentService = new IncidentService();
+        ReflectionTestUtils.setField(incidentService, "incidentDeduplicator",
+                new IncidentDeduplicator(true, 300, List.of("name")));
+    }
+
+    private Incident newIncident(String name, String description) {
+        return Incident.builder().name(name).description(description).build();
+    }
+
+    @Test
+    void testDuplicatesAreFoldedIntoExistingIncident() {
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+        Incident second = incidentService.createIncident(newIncident("  disk   FULL ", "host-2"));
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(2L, second.getOccurrenceCount());
+        assertEquals(2L, second.getVersion());
+        assertSame(second, incidentService.getIncidentsForTesting().iterator().next());
+        assertSame(second, incidentService.getIncidentCacheForTesting().iterator().next());
+        // 已返回给调用方的对象不会被后续合并修改
+        assertEquals(1L, first.getOccurrenceCount());
+        assertEquals(1L, first.getVersion());
+        assertEquals(first.getCreatedDate(), second.getFirstSeen());
+        assertFalse(second.getLastSeen().before(second.getFirstSeen()));
+        assertEquals(1, incidentService.getIncidentsForTesting().size());
+        assertEquals(1, incidentService.getIncidentCacheForTesting().size());
+    }
+
+    @Test
+    void testDifferentFingerprintsCreateSeparateIncidents() {
+        incidentService.createIncident(newIncident("Disk full", "host-1"));
+        incidentService.createIncident(newIncident("CPU high", "host-1"));
+
+        assertEquals(2, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testDuplicateOutsideWindowCreatesNewIncident() {
+        ReflectionTestUtils.setField(incidentService, "incidentDeduplicator",
+                new IncidentDeduplicator(true, 0, List.of("name")));
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+        // 把最近出现时间拨回到窗口之外
+        first.setLastSeen(new Date(first.getLastSeen().getTime() - 1000));
+
+        Incident second = incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(1L, second.getOccurrenceCount());
+    }
+
+    @Test
+    void testDeletedIncidentIsNotReused() {
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+        incidentService.deleteIncident(first.getId());
+
+        Incident second = incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        assertNotEquals(first.getId(), second.getId());
+        assertEquals(1, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testUpdateKeepsOccurrenceFields() {
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+        incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        Incident update = newIncident("Disk full", "cleaned up");
+        update.setId(first.getId());
+        Incident updated = incidentService.updateIncident(update);
+
+        assertEquals(2L, updated.getOccurrenceCount());
+        assertNotNull(updated.getFirstSeen());
+    }
+
+    @Test
+    void testRenamedIncidentReceivesDuplicatesOfNewName() {
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        Incident update = newIncident("Disk almost full", "host-1");
+        update.setId(first.getId());
+        incidentService.updateIncident(update);
+        Incident duplicate = incidentService.createIncident(newIncident("disk almost full", "host-2"));
+
+        assertEquals(first.getId(), duplicate.getId());
+        assertEquals(2L, duplicate.getOccurrenceCount());
+        assertEquals(1, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testPatchedIncidentNoLongerReceivesDuplicatesOfOldName() {
+        Incident first = incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        incidentService.patchIncident(first.getId(), IncidentPatch.builder().name("CPU high").build());
+        Incident renamedDuplicate = incidentService.createIncident(newIncident("CPU high", "host-2"));
+        Incident oldName = incidentService.createIncident(newIncident("Disk full", "host-3"));
+
+        assertEquals(first.getId(), renamedDuplicate.getId());
+        assertNotEquals(first.getId(), oldName.getId());
+        assertEquals(2, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testDisabledDeduplicatorKeepsEveryIncident() {
+        ReflectionTestUtils.setField(incidentService, "incidentDeduplicator",
+                new IncidentDeduplicator(false, 300, List.of("name")));
+        incidentService.createIncident(newIncident("Disk full", "host-1"));
+        incidentService.createIncident(newIncident("Disk full", "host-1"));
+
+        assertEquals(2, incidentService.getIncidentsForTesting().size());
+    }
+
+    @Test
+    void testFingerprintUsesConfiguredFields() {
+        IncidentDeduplicator deduplicator = new IncidentDeduplicator(true, 300, List.of("name", " description"));
+
+        assertEquals(deduplicator.fingerprint(newIncident("Disk full", "Host 1")),
+                deduplicator.fingerprint(newIncident("disk full", "host  1")));
+        assertNotEquals(deduplicator.fingerprint(newIncident("Disk full", "host-1")),
+                deduplicator.fingerprint(newIncident("Disk full", "host-2")));
+        assertThrows(IllegalArgumentException.class, () -> new IncidentDeduplicator(true, 300, List.of("id")));
+    }
+
+    @Test
+    void testConcurrentAlertStormKeepsSingleIncident() throws InterruptedException {
+        int threadCount = 8;
+        int perThread = 1000;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < perThread; j++) {
+                        incidentService.createIncident(newIncident("Disk full", "host-" + j));
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        List<Incident> incidents = incidentService.getAllIncidents();
+        assertEquals(1, incidents.size());
+        assertEquals((long) threadCount * perThread, incidents.get(0).getOccurrenceCount());
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.incidentmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.CronTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class IncidentSchedulingTest {
+
+    @Autowired
+    private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+    // 过期清理（开启归档时同时负责归档和清理过期段文件）必须注册为定时任务，否则部署后永远不会执行
+    @Test
+    void testCleanExpiredDataIsScheduled() {
+        CronTask cleanTask = scheduledTaskHolders.stream()
+                .flatMap(holder -> holder.getScheduledTasks().stream())
+                .map(scheduledTask -> scheduledTask.getTask())
+                .filter(task -> task instanceof CronTask && task.getRunnable() instanceof ScheduledMethodRunnable)
+                .map(task -> (CronTask) task)
+                .filter(task -> ((ScheduledMethodRunnable) task.getRunnable()).getMethod().getName().equals("cleanExpiredData"))
+                .findFirst()
+                .orElse(null);
+
+        assertNotNull(cleanTask, "cleanExpiredData should be registered as a scheduled task");
+        assertEquals("0 0 2 * * *", cleanTask.getExpression());
+        assertInstanceOf(IncidentService.class, ((ScheduledMethodRunnable) cleanTask.getRunnable()).getTarget());
+    }
+}
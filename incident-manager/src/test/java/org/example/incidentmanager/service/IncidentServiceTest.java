@@ -1,11 +1,17 @@
 package org.example.incidentmanager.service;
 
+import org.example.incidentmanager.exception.IncidentVersionConflictException;
 import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentPatch;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,4 +97,82 @@ public class IncidentServiceTest {
         assertTrue(incidents.stream().anyMatch(i -> i.getDescription().equals("Incident 2")));
     }
 
+    @Test
+    void testVersionIsIncrementedOnUpdate() {
+        Incident createdIncident = incidentService.createIncident(Incident.builder().description("Test incident").build());
+        assertEquals(1L, createdIncident.getVersion());
+
+        Incident update = Incident.builder().id(createdIncident.getId()).description("Updated").version(1L).build();
+        Incident updatedIncident = incidentService.updateIncident(update);
+
+        assertEquals(2L, updatedIncident.getVersion());
+        assertEquals(createdIncident.getCreatedDate(), updatedIncident.getCreatedDate());
+    }
+
+    @Test
+    void testUpdateWithStaleVersionIsRejected() {
+        Incident createdIncident = incidentService.createIncident(Incident.builder().description("Test incident").build());
+        incidentService.updateIncident(Incident.builder().id(createdIncident.getId()).description("First").version(1L).build());
+
+        IncidentVersionConflictException exception = assertThrows(IncidentVersionConflictException.class, () ->
+                incidentService.updateIncident(Incident.builder().id(createdIncident.getId()).description("Second").version(1L).build()));
+        assertEquals(2L, exception.getCurrentVersion());
+        assertEquals("First", incidentService.getAllIncidents().get(0).getDescription());
+    }
+
+    @Test
+    void testPatchOnlyChangesGivenFields() {
+        Incident createdIncident = incidentService.createIncident(Incident.builder().name("Name").description("Test incident").build());
+
+        Incident patchedIncident = incidentService.patchIncident(createdIncident.getId(), IncidentPatch.builder().description("Patched").build());
+
+        assertEquals("Name", patchedIncident.getName());
+        assertEquals("Patched", patchedIncident.getDescription());
+        assertEquals(2L, patchedIncident.getVersion());
+        assertEquals("Patched", incidentService.getIncidentCacheForTesting().iterator().next().getDescription());
+        assertThrows(IncidentVersionConflictException.class, () ->
+                incidentService.patchIncident(createdIncident.getId(), IncidentPatch.builder().name("Other").version(1L).build()));
+    }
+
+    @Test
+    void testPatchNonExistentIncident() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () ->
+                incidentService.patchIncident(999L, IncidentPatch.builder().name("Name").build()));
+        assertEquals("Incident with id 999 not found", exception.getMessage());
+    }
+
+    @Test
+    void testConcurrentConditionalUpdatesHaveSingleWinner() throws InterruptedException {
+        Incident createdIncident = incidentService.createIncident(Incident.builder().description("Test incident").build());
+        int threadCount = 8;
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger conflicted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            int index = i;
+            executorService.submit(() -> {
+                try {
+                    start.await();
+                    incidentService.patchIncident(createdIncident.getId(),
+                            IncidentPatch.builder().description("Patched by " + index).version(1L).build());
+                    succeeded.incrementAndGet();
+                } catch (IncidentVersionConflictException e) {
+                    conflicted.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        done.await();
+        executorService.shutdown();
+
+        assertEquals(1, succeeded.get());
+        assertEquals(threadCount - 1, conflicted.get());
+        assertEquals(2L, incidentService.getAllIncidents().get(0).getVersion());
+    }
 }
@@ -0,0 +1,138 @@
+package org.example.incidentmanager.service;
+
+import org.example.incidentmanager.model.Incident;
+import org.example.incidentmanager.model.IncidentStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncidentStatisticsTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private IncidentStatistics incidentStatistics;
+
+    private IncidentService incidentService;
+
+    @BeforeEach
+    void setUp() {
+        incidentStatistics = new IncidentStatistics();
+        incidentService = new IncidentService();
+        ReflectionTestUtils.setField(incidentService, "incidentStatistics", incidentStatistics);
+    }
+
+    @Test
+    void testServiceMutationsAreCounted() {
+        Incident incident = new Incident();
+        incident.setDescription("Test incident");
+        Incident created = incidentService.createIncident(incident);
+        incidentService.createIncident(Incident.builder().description("Another incident").build());
+        incidentService.updateIncident(created);
+        incidentService.deleteIncident(created.getId());
+
+        IncidentStats stats = incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_HOUR, 24, System.currentTimeMillis());
+        assertEquals(2, stats.getCreated());
+        assertEquals(1, stats.getUpdated());
+        assertEquals(1, stats.getDeleted());
+        assertEquals(1, stats.getActive());
+        assertEquals(24, stats.getBuckets().size());
+        assertEquals(2, stats.getBuckets().get(23).getCreated());
+    }
+
+    @Test
+    void testExpiredIncidentsAreCounted() {
+        Incident incident = incidentService.createIncident(Incident.builder().description("Old incident").build());
+        incident.setUpdatedDate(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(3)));
+
+        incidentService.cleanExpiredData();
+
+        IncidentStats stats = incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_MINUTE, 1, System.currentTimeMillis());
+        assertEquals(1, stats.getExpired());
+        assertEquals(0, stats.getActive());
+        assertEquals(1, stats.getBuckets().get(0).getExpired());
+    }
+
+    @Test
+    void testDeduplicatedIncidentsAreNotCountedAsCreated() {
+        ReflectionTestUtils.setField(incidentService, "incidentDeduplicator",
+                new IncidentDeduplicator(true, 300, List.of("name")));
+        incidentService.createIncident(Incident.builder().name("Disk full").description("host-1").build());
+        incidentService.createIncident(Incident.builder().name("Disk full").description("host-1").build());
+
+        IncidentStats stats = incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_HOUR, 1, System.currentTimeMillis());
+        assertEquals(1, stats.getCreated());
+        assertEquals(1, stats.getDeduplicated());
+    }
+
+    @Test
+    void testBucketsAreOrderedAndAligned() {
+        long now = 100 * HOUR + 30 * 60 * 1000L;
+        incidentStatistics.recordCreated(now);
+        incidentStatistics.recordCreated(now - HOUR);
+        incidentStatistics.recordCreated(now - HOUR);
+        // 超出保留范围的旧数据不应出现在结果中
+        incidentStatistics.recordCreated(now - 2 * HOUR);
+
+        IncidentStats stats = incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_HOUR, 2, now);
+        assertEquals(new Date(99 * HOUR), stats.getBuckets().get(0).getStart());
+        assertEquals(2, stats.getBuckets().get(0).getCreated());
+        assertEquals(new Date(100 * HOUR), stats.getBuckets().get(1).getStart());
+        assertEquals(1, stats.getBuckets().get(1).getCreated());
+    }
+
+    @Test
+    void testRingBufferSlotIsReusedForNewPeriod() {
+        TimeBucketCounter counter = new TimeBucketCounter(HOUR, 24);
+        counter.add(0, 5);
+        counter.add(24 * HOUR, 1);
+
+        assertEquals(0, counter.get(0));
+        assertEquals(1, counter.get(24));
+        // 迟到的旧周期数据不会覆盖新周期
+        counter.add(0, 3);
+        assertEquals(1, counter.get(24));
+    }
+
+    @Test
+    void testInvalidQueryIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> incidentStatistics.snapshot("day", 1, System.currentTimeMillis()));
+        assertThrows(IllegalArgumentException.class,
+                () -> incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_HOUR, 0, System.currentTimeMillis()));
+    }
+
+    @Test
+    void testConcurrentIncrementsAreNotLost() throws InterruptedException {
+        int threadCount = 8;
+        int perThread = 10000;
+        long now = System.currentTimeMillis();
+        CountDownLatch latch = new CountDownLatch(threadCount);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    for (int j = 0; j < perThread; j++) {
+                        incidentStatistics.recordCreated(now);
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+        executorService.shutdown();
+
+        IncidentStats stats = incidentStatistics.snapshot(IncidentStatistics.RESOLUTION_MINUTE, 1, now);
+        assertEquals((long) threadCount * perThread, stats.getCreated());
+        assertEquals((long) threadCount * perThread, stats.getBuckets().get(0).getCreated());
+    }
+}